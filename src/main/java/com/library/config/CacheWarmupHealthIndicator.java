@@ -0,0 +1,28 @@
+package com.library.config;
+
+import com.library.service.CacheWarmupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports OUT_OF_SERVICE until cache warm-up has finished; exposed as {@code cacheWarmup}
+ * in the readiness health group.
+ */
+@Component
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+    
+    @Autowired
+    private CacheWarmupService cacheWarmupService;
+    
+    @Override
+    public Health health() {
+        CacheWarmupService.Status status = cacheWarmupService.getStatus();
+        Health.Builder builder = (status == CacheWarmupService.Status.PENDING
+                || status == CacheWarmupService.Status.RUNNING)
+                ? Health.outOfService()
+                : Health.up();
+        return builder.withDetails(cacheWarmupService.getDetails()).build();
+    }
+}
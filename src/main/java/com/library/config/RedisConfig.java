@@ -1,5 +1,6 @@
 package com.library.config;
 
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -31,7 +32,12 @@ public class RedisConfig {
     
     @Bean
     public GenericJackson2JsonRedisSerializer redisSerializer() {
-        return new GenericJackson2JsonRedisSerializer(redisObjectMapper());
+        // Cached values must carry type info to be read back as DTOs rather than maps.
+        // Use a copy so the web layer's ObjectMapper does not emit @class properties.
+        ObjectMapper mapper = redisObjectMapper().copy();
+        mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        return new GenericJackson2JsonRedisSerializer(mapper);
     }
     
     @Bean
@@ -1,9 +1,15 @@
 package com.library.config;
 
+import com.library.security.BCryptStrengthCalibrator;
+import com.library.security.BoundedPasswordEncoder;
 import com.library.security.CustomUserDetailsService;
 import com.library.security.JwtAuthenticationFilter;
+import com.library.security.PasswordHashingExecutor;
 import com.library.security.RateLimitFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,6 +21,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -22,14 +29,20 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
     
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+    
+    private static final String BCRYPT_ID = "bcrypt";
+    
     @Autowired
     private CustomUserDetailsService userDetailsService;
     
@@ -39,15 +52,59 @@ public class SecurityConfig {
     @Autowired
     private RateLimitFilter rateLimitFilter;
     
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
+    // One cost for the whole cluster: hashes are written and upgraded to exactly this
+    @Value("${password-hashing.bcrypt-strength:12}")
+    private int bcryptStrength;
+    
+    @Value("${password-hashing.calibrate:true}")
+    private boolean calibrate;
+    
+    @Value("${password-hashing.target-latency:250ms}")
+    private Duration targetLatency;
+    
+    @Value("${password-hashing.min-strength:10}")
+    private int minStrength;
+    
+    @Value("${password-hashing.max-strength:16}")
+    private int maxStrength;
+    
+    /**
+     * Hashes are stored as {@code {bcrypt}...}, so the algorithm can change later without
+     * invalidating existing passwords. Hashes from before the prefix, or with a lower cost than
+     * the configured one, are re-encoded on the user's next successful login.
+     * <p>
+     * The cost is never taken from calibration: upgrades only ever raise it, so a node that
+     * calibrated high would push every user's hash past what slower nodes can afford. The
+     * calibrated cost is only logged as a recommendation for {@code bcrypt-strength}.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        log.info("Using configured BCrypt strength {}", bcryptStrength);
+        if (calibrate) {
+            int recommended = BCryptStrengthCalibrator.calibrate(targetLatency, minStrength, maxStrength);
+            if (recommended != bcryptStrength) {
+                log.warn("BCrypt strength {} would hash within the {} ms target on this node; configured strength is {}",
+                        recommended, targetLatency.toMillis(), bcryptStrength);
+            }
+        }
+        
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID,
+                Map.of(BCRYPT_ID, new BCryptPasswordEncoder(bcryptStrength)));
+        // Legacy hashes have no {id} prefix; all of them are BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        
+        // BCrypt runs on its own bounded pool, not on request threads
+        return new BoundedPasswordEncoder(delegating, passwordHashingExecutor);
     }
     
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
         return authProvider;
     }
@@ -68,12 +125,18 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/api-docs/**", "/swagger-ui.html").permitAll()
+                // Metrics are admin-only; health probes stay public
+                .requestMatchers("/actuator/metrics/**").hasRole("SUPER_ADMIN")
                 .requestMatchers("/actuator/**").permitAll()
                 
                 // Article endpoints - role-based
                 .requestMatchers(HttpMethod.GET, "/api/articles/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/articles/*/attachments").hasAnyRole("CONTRIBUTOR", "EDITOR", "SUPER_ADMIN")
+                .requestMatchers(HttpMethod.DELETE, "/api/articles/*/attachments/*").hasAnyRole("CONTRIBUTOR", "EDITOR", "SUPER_ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/articles").hasAnyRole("CONTRIBUTOR", "EDITOR", "SUPER_ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/articles/bulk/**").hasAnyRole("CONTRIBUTOR", "EDITOR", "SUPER_ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/articles/**").hasAnyRole("CONTRIBUTOR", "EDITOR", "SUPER_ADMIN")
+                .requestMatchers(HttpMethod.PATCH, "/api/articles/**").hasAnyRole("CONTRIBUTOR", "EDITOR", "SUPER_ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/articles/**").hasAnyRole("EDITOR", "SUPER_ADMIN")
                 
                 // User endpoints - admin only
@@ -96,7 +159,7 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("*"));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
         configuration.setExposedHeaders(List.of("Authorization"));
         
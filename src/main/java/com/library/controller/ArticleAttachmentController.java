@@ -0,0 +1,135 @@
+package com.library.controller;
+
+import com.library.domain.entity.ArticleAttachment;
+import com.library.dto.response.ApiResponse;
+import com.library.dto.response.AttachmentResponse;
+import com.library.service.ArticleAttachmentService;
+import com.library.service.AttachmentStorageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/articles/{articleId}/attachments")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Article Attachments", description = "Binary attachments for articles with resumable downloads")
+public class ArticleAttachmentController {
+    
+    @Autowired
+    private ArticleAttachmentService attachmentService;
+    
+    @Autowired
+    private AttachmentStorageService storageService;
+    
+    @PostMapping(consumes = MediaType.ALL_VALUE)
+    @PreAuthorize("hasAnyRole('CONTRIBUTOR', 'EDITOR', 'SUPER_ADMIN')")
+    @Operation(summary = "Upload attachment",
+               description = "Stream the raw file as the request body; same permissions as updating the article")
+    public ResponseEntity<ApiResponse<AttachmentResponse>> uploadAttachment(
+            @PathVariable Long articleId,
+            @RequestParam String filename,
+            HttpServletRequest request,
+            Authentication authentication) throws IOException {
+        AttachmentResponse attachment = attachmentService.uploadAttachment(
+            articleId, filename, request.getContentType(), request.getInputStream(), authentication.getName());
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Attachment uploaded successfully", attachment));
+    }
+    
+    @GetMapping
+    @Operation(summary = "List attachments", description = "List attachments of an article the user can view")
+    public ResponseEntity<ApiResponse<List<AttachmentResponse>>> getAttachments(
+            @PathVariable Long articleId,
+            Authentication authentication) {
+        List<AttachmentResponse> attachments = attachmentService.getAttachments(articleId, authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success(attachments));
+    }
+    
+    @GetMapping("/{attachmentId}")
+    @Operation(summary = "Download attachment",
+               description = "Download attachment content; supports single byte ranges and If-Range for resumable reads")
+    public void downloadAttachment(
+            @PathVariable Long articleId,
+            @PathVariable Long attachmentId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ArticleAttachment attachment = attachmentService.getAttachmentForDownload(
+            articleId, attachmentId, authentication.getName());
+        
+        long total = attachment.getSize();
+        String etag = "\"" + attachment.getSha256() + "\"";
+        long start = 0;
+        long length = total;
+        
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(attachment.getFilename(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+        response.setContentType(attachment.getContentType());
+        
+        // A stale If-Range validator means the client must restart from scratch
+        boolean honourRange = rangeHeader != null && (ifRange == null || ifRange.equals(etag));
+        
+        if (honourRange) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            
+            // Multi-range requests are answered with the full entity, which RFC 9110 permits
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(total);
+                    long end = ranges.get(0).getRangeEnd(total);
+                    length = end - start + 1;
+                } catch (IllegalArgumentException e) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + total);
+                    return;
+                }
+                
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + start + "-" + (start + length - 1) + "/" + total);
+            }
+        }
+        
+        response.setContentLengthLong(length);
+        storageService.transfer(attachment.getSha256(), start, length, request, response);
+    }
+    
+    @DeleteMapping("/{attachmentId}")
+    @PreAuthorize("hasAnyRole('CONTRIBUTOR', 'EDITOR', 'SUPER_ADMIN')")
+    @Operation(summary = "Delete attachment", description = "Remove an attachment; same permissions as updating the article")
+    public ResponseEntity<ApiResponse<Void>> deleteAttachment(
+            @PathVariable Long articleId,
+            @PathVariable Long attachmentId,
+            Authentication authentication) {
+        attachmentService.deleteAttachment(articleId, attachmentId, authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success("Attachment deleted successfully", null));
+    }
+}
@@ -1,15 +1,22 @@
 package com.library.controller;
 
+import com.library.domain.enums.BulkArticleOperation;
+import com.library.dto.request.ArticlePatchRequest;
 import com.library.dto.request.ArticleRequest;
+import com.library.dto.request.BulkArticleRequest;
 import com.library.dto.response.ApiResponse;
 import com.library.dto.response.ArticleResponse;
+import com.library.dto.response.ArticleStatisticsResponse;
+import com.library.dto.response.BulkArticleResponse;
 import com.library.service.ArticleService;
+import com.library.service.ArticleStatisticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -26,6 +33,9 @@ public class ArticleController {
     @Autowired
     private ArticleService articleService;
     
+    @Autowired
+    private ArticleStatisticsService articleStatisticsService;
+    
     @GetMapping
     @Operation(summary = "Get all articles", description = "Retrieve articles based on user role and permissions")
     public ResponseEntity<ApiResponse<List<ArticleResponse>>> getAllArticles(Authentication authentication) {
@@ -49,6 +59,23 @@ public class ArticleController {
         return ResponseEntity.ok(ApiResponse.success(articles));
     }
     
+    @GetMapping("/statistics")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Get article statistics", description = "Article counts per author, visibility and creation day (SUPER_ADMIN only)")
+    public ResponseEntity<ApiResponse<ArticleStatisticsResponse>> getStatistics(
+            @RequestParam(defaultValue = "30") int days) {
+        ArticleStatisticsResponse statistics = articleStatisticsService.getStatistics(days);
+        return ResponseEntity.ok(ApiResponse.success(statistics));
+    }
+    
+    @PostMapping("/statistics/reconcile")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Reconcile article statistics", description = "Recompute counters from the articles table (SUPER_ADMIN only)")
+    public ResponseEntity<ApiResponse<Integer>> reconcileStatistics() {
+        int corrected = articleStatisticsService.reconcile();
+        return ResponseEntity.ok(ApiResponse.success("Statistics reconciled", corrected));
+    }
+    
     @PostMapping
     @PreAuthorize("hasAnyRole('CONTRIBUTOR', 'EDITOR', 'SUPER_ADMIN')")
     @Operation(summary = "Create article", description = "Create a new article (CONTRIBUTOR, EDITOR, SUPER_ADMIN)")
@@ -72,6 +99,62 @@ public class ArticleController {
         return ResponseEntity.ok(ApiResponse.success("Article updated successfully", article));
     }
     
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasAnyRole('CONTRIBUTOR', 'EDITOR', 'SUPER_ADMIN')")
+    @Operation(summary = "Patch article", description = "Change only the fields sent (JSON merge patch); send Prefer: return=minimal to skip the response body")
+    public ResponseEntity<ApiResponse<ArticleResponse>> patchArticle(
+            @PathVariable Long id,
+            @Valid @RequestBody ArticlePatchRequest request,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            Authentication authentication) {
+        boolean minimal = prefer != null && prefer.contains("return=minimal");
+        ArticleResponse article = articleService.patchArticle(id, request, authentication.getName(), !minimal);
+        if (minimal) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(ApiResponse.success("Article updated successfully", article));
+    }
+    
+    @PostMapping("/bulk/publish")
+    @PreAuthorize("hasAnyRole('CONTRIBUTOR', 'EDITOR', 'SUPER_ADMIN')")
+    @Operation(summary = "Bulk publish articles", description = "Make many articles public at once (owner, SUPER_ADMIN on any)")
+    public ResponseEntity<ApiResponse<BulkArticleResponse>> bulkPublish(
+            @Valid @RequestBody BulkArticleRequest request,
+            Authentication authentication) {
+        BulkArticleResponse result = articleService.bulkUpdate(BulkArticleOperation.PUBLISH, request, authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success("Articles published successfully", result));
+    }
+    
+    @PostMapping("/bulk/unpublish")
+    @PreAuthorize("hasAnyRole('CONTRIBUTOR', 'EDITOR', 'SUPER_ADMIN')")
+    @Operation(summary = "Bulk unpublish articles", description = "Make many articles private at once (owner, SUPER_ADMIN on any)")
+    public ResponseEntity<ApiResponse<BulkArticleResponse>> bulkUnpublish(
+            @Valid @RequestBody BulkArticleRequest request,
+            Authentication authentication) {
+        BulkArticleResponse result = articleService.bulkUpdate(BulkArticleOperation.UNPUBLISH, request, authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success("Articles unpublished successfully", result));
+    }
+    
+    @PostMapping("/bulk/delete")
+    @PreAuthorize("hasAnyRole('EDITOR', 'SUPER_ADMIN')")
+    @Operation(summary = "Bulk delete articles", description = "Delete many articles at once (EDITOR on own, SUPER_ADMIN on any)")
+    public ResponseEntity<ApiResponse<BulkArticleResponse>> bulkDelete(
+            @Valid @RequestBody BulkArticleRequest request,
+            Authentication authentication) {
+        BulkArticleResponse result = articleService.bulkUpdate(BulkArticleOperation.DELETE, request, authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success("Articles deleted successfully", result));
+    }
+    
+    @PostMapping("/bulk/reassign")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Bulk reassign articles", description = "Move many articles to another author (SUPER_ADMIN only)")
+    public ResponseEntity<ApiResponse<BulkArticleResponse>> bulkReassign(
+            @Valid @RequestBody BulkArticleRequest request,
+            Authentication authentication) {
+        BulkArticleResponse result = articleService.bulkUpdate(BulkArticleOperation.REASSIGN, request, authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success("Articles reassigned successfully", result));
+    }
+    
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('EDITOR', 'SUPER_ADMIN')")
     @Operation(summary = "Delete article", description = "Delete an article (EDITOR on own, SUPER_ADMIN on any)")
@@ -1,15 +1,18 @@
 package com.library.controller;
 
 import com.library.dto.request.LoginRequest;
+import com.library.dto.request.RefreshTokenRequest;
 import com.library.dto.request.RegisterRequest;
 import com.library.dto.request.VerifyOtpRequest;
 import com.library.dto.response.ApiResponse;
 import com.library.dto.response.AuthResponse;
+import com.library.dto.response.AvailabilityResponse;
 import com.library.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -31,6 +34,15 @@ public class AuthController {
                 .body(ApiResponse.success("User registered successfully", response));
     }
     
+    @GetMapping("/availability")
+    @Operation(summary = "Check availability", description = "Check whether a username and/or email can still be registered")
+    public ResponseEntity<ApiResponse<AvailabilityResponse>> availability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        AvailabilityResponse response = authService.checkAvailability(username, email);
+        return ResponseEntity.ok(ApiResponse.success("Availability checked", response));
+    }
+    
     @PostMapping("/login")
     @Operation(summary = "Login", description = "Authenticate user and send OTP for MFA")
     public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
@@ -44,4 +56,23 @@ public class AuthController {
         AuthResponse response = authService.verifyOtp(request);
         return ResponseEntity.ok(ApiResponse.success("Login successful", response));
     }
+    
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh token", description = "Exchange a refresh token for a new access token and refresh token")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        AuthResponse response = authService.refresh(request);
+        return ResponseEntity.ok(ApiResponse.success("Token refreshed", response));
+    }
+    
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revoke the bearer token used for this request and, if given, its refresh token")
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorizationHeader,
+            @RequestBody(required = false) RefreshTokenRequest request) {
+        if (!authorizationHeader.startsWith("Bearer ")) {
+            throw new IllegalArgumentException("Bearer token required");
+        }
+        authService.logout(authorizationHeader.substring(7), request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.ok(ApiResponse.success("Logged out successfully", null));
+    }
 }
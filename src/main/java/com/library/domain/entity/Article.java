@@ -7,6 +7,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,8 +16,12 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "articles")
+@Table(name = "articles", indexes = {
+    @Index(name = "idx_articles_deleted_at", columnList = "deleted, deleted_at"),
+    @Index(name = "idx_articles_publish_at", columnList = "publish_at")
+})
 @EntityListeners(AuditingEntityListener.class)
+@SQLRestriction("deleted = false")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,8 +45,10 @@ public class Article {
     @Column(nullable = false, name = "author_id")
     private Long authorId;
     
+    // No FK: deleting an author soft-deletes their articles and the purge job removes them later
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "author_id", insertable = false, updatable = false)
+    @JoinColumn(name = "author_id", insertable = false, updatable = false,
+                foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User author;
     
     @Column(nullable = false)
@@ -54,4 +62,16 @@ public class Article {
     @LastModifiedDate
     @Column(nullable = false)
     private LocalDateTime updatedAt;
+    
+    // Set while the article is private and waiting for ArticlePublicationService
+    @Column(name = "publish_at")
+    private LocalDateTime publishAt;
+    
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    @Builder.Default
+    private Boolean deleted = false;
+    
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
 }
@@ -0,0 +1,53 @@
+package com.library.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "article_attachments", indexes = {
+    @Index(name = "idx_attachment_article_id", columnList = "article_id"),
+    @Index(name = "idx_attachment_sha256", columnList = "sha256")
+})
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArticleAttachment {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, name = "article_id")
+    private Long articleId;
+    
+    @Column(nullable = false)
+    private String filename;
+    
+    @Column(nullable = false, name = "content_type")
+    private String contentType;
+    
+    @Column(nullable = false, name = "size_bytes")
+    private Long size;
+    
+    /**
+     * Hex SHA-256 of the content; doubles as the blob's address in the file store.
+     */
+    @Column(nullable = false, length = 64)
+    private String sha256;
+    
+    @Column(nullable = false, name = "uploaded_by")
+    private Long uploadedBy;
+    
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
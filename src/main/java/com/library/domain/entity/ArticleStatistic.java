@@ -0,0 +1,38 @@
+package com.library.domain.entity;
+
+import com.library.domain.enums.StatisticDimension;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single pre-aggregated article counter, e.g. (AUTHOR, "42") or (CREATED_DAY, "2024-05-01").
+ */
+@Entity
+@Table(name = "article_statistics",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_article_statistics_dimension_key", columnNames = {"dimension", "stat_key"})
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArticleStatistic {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatisticDimension dimension;
+    
+    @Column(nullable = false, name = "stat_key", length = 64)
+    private String statKey;
+    
+    @Column(nullable = false, name = "article_count")
+    @Builder.Default
+    private Long articleCount = 0L;
+}
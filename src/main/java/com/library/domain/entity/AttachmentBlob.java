@@ -0,0 +1,33 @@
+package com.library.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per stored blob. The row is what gets locked while attachments referencing the blob
+ * are added or removed; the references themselves are the {@link ArticleAttachment} rows.
+ */
+@Entity
+@Table(name = "attachment_blobs")
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttachmentBlob {
+    
+    @Id
+    @Column(length = 64)
+    private String sha256;
+    
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -33,6 +34,12 @@ public class OtpToken {
     @Builder.Default
     private Boolean used = false;
     
+    // Wrong guesses against this code
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer attempts = 0;
+    
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
@@ -9,17 +9,21 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
 @Table(name = "users", 
        uniqueConstraints = {
-           @UniqueConstraint(columnNames = "username"),
-           @UniqueConstraint(columnNames = "email")
+           @UniqueConstraint(name = "uk_users_username", columnNames = "username"),
+           @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+           @UniqueConstraint(name = "uk_users_username_normalized", columnNames = "username_normalized"),
+           @UniqueConstraint(name = "uk_users_email_normalized", columnNames = "email_normalized")
        })
 @EntityListeners(AuditingEntityListener.class)
 @Data
@@ -39,14 +43,21 @@ public class User {
     
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String username;
     
     @NotBlank(message = "Email is required")
     @Email(message = "Email must be valid")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
     
+    // Lower-cased copies for case-insensitive lookups, each behind its own unique index
+    @Column(name = "username_normalized", length = 50)
+    private String usernameNormalized;
+    
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+    
     @NotBlank(message = "Password is required")
     @Column(nullable = false)
     private String password;
@@ -74,6 +85,15 @@ public class User {
     @Builder.Default
     private Boolean enabled = true;
     
+    /**
+     * Bumped whenever a change must invalidate issued tokens (role, enabled, username); tokens
+     * carry the version they were issued with.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Long securityVersion = 0L;
+    
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -82,6 +102,17 @@ public class User {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    @PrePersist
+    @PreUpdate
+    protected void normalizeIdentifiers() {
+        usernameNormalized = normalizeIdentifier(username);
+        emailNormalized = normalizeIdentifier(email);
+    }
+    
+    public static String normalizeIdentifier(String identifier) {
+        return identifier == null ? null : identifier.trim().toLowerCase(Locale.ROOT);
+    }
+    
     public boolean isAccountNonLocked() {
         if (!accountLocked) {
             return true;
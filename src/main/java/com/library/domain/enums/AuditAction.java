@@ -18,6 +18,8 @@ public enum AuditAction {
     ARTICLE_UPDATED,
     ARTICLE_DELETED,
     ARTICLE_VIEWED,
+    ARTICLE_ATTACHMENT_ADDED,
+    ARTICLE_ATTACHMENT_DELETED,
     
     // System Actions
     RATE_LIMIT_EXCEEDED,
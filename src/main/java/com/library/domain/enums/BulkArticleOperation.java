@@ -0,0 +1,8 @@
+package com.library.domain.enums;
+
+public enum BulkArticleOperation {
+    PUBLISH,
+    UNPUBLISH,
+    DELETE,
+    REASSIGN
+}
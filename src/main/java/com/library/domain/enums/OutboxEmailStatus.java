@@ -0,0 +1,7 @@
+package com.library.domain.enums;
+
+public enum OutboxEmailStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
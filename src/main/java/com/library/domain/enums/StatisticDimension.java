@@ -0,0 +1,7 @@
+package com.library.domain.enums;
+
+public enum StatisticDimension {
+    AUTHOR,
+    VISIBILITY,
+    CREATED_DAY
+}
@@ -0,0 +1,67 @@
+package com.library.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JSON merge patch (RFC 7396) for an article: absent fields are left unchanged, fields sent as
+ * {@code null} are removed. Setters record which fields were present in the request body.
+ */
+@Getter
+@NoArgsConstructor
+public class ArticlePatchRequest {
+    
+    public static final String TITLE = "title";
+    public static final String CONTENT = "content";
+    public static final String IS_PUBLIC = "isPublic";
+    public static final String PUBLISH_AT = "publishAt";
+    
+    // @NotBlank would reject absent fields too; the patterns only reject blank values
+    @Size(min = 3, max = 200, message = "Title must be between 3 and 200 characters")
+    @Pattern(regexp = "(?s).*\\S.*", message = "Title must not be blank")
+    private String title;
+    
+    @Size(min = 10, message = "Content must be at least 10 characters")
+    @Pattern(regexp = "(?s).*\\S.*", message = "Content must not be blank")
+    private String content;
+    
+    private Boolean isPublic;
+    
+    @Future(message = "Publish time must be in the future")
+    private LocalDateTime publishAt;
+    
+    @JsonIgnore
+    private final Set<String> presentFields = new HashSet<>();
+    
+    public void setTitle(String title) {
+        this.title = title;
+        presentFields.add(TITLE);
+    }
+    
+    public void setContent(String content) {
+        this.content = content;
+        presentFields.add(CONTENT);
+    }
+    
+    public void setIsPublic(Boolean isPublic) {
+        this.isPublic = isPublic;
+        presentFields.add(IS_PUBLIC);
+    }
+    
+    public void setPublishAt(LocalDateTime publishAt) {
+        this.publishAt = publishAt;
+        presentFields.add(PUBLISH_AT);
+    }
+    
+    public boolean has(String field) {
+        return presentFields.contains(field);
+    }
+}
@@ -1,5 +1,6 @@
 package com.library.dto.request;
 
+import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -7,6 +8,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,4 +26,8 @@ public class ArticleRequest {
     
     @Builder.Default
     private Boolean isPublic = true;
+    
+    // When set, the article stays private until this time
+    @Future(message = "Publish time must be in the future")
+    private LocalDateTime publishAt;
 }
@@ -0,0 +1,24 @@
+package com.library.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkArticleRequest {
+    
+    @NotEmpty(message = "At least one article id is required")
+    @Size(max = 5000, message = "At most 5000 articles can be changed at once")
+    private List<Long> ids;
+    
+    // Required for reassign only
+    private Long newAuthorId;
+}
@@ -2,6 +2,7 @@ package com.library.dto.request;
 
 import com.library.domain.enums.Role;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,6 +19,7 @@ public class UserUpdateRequest {
     private String fullname;
     
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
+    @Pattern(regexp = "^[^@]*$", message = "Username must not contain '@'")
     private String username;
     
     @Email(message = "Email must be valid")
@@ -18,6 +18,7 @@ public class ArticleResponse {
     private Long authorId;
     private String authorName;
     private Boolean isPublic;
+    private LocalDateTime publishAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
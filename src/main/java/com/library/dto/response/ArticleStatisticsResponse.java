@@ -0,0 +1,20 @@
+package com.library.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArticleStatisticsResponse {
+    private long totalArticles;
+    private long publicArticles;
+    private long privateArticles;
+    private Map<Long, Long> articlesPerAuthor;
+    private Map<String, Long> articlesCreatedPerDay;
+}
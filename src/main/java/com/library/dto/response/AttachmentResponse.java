@@ -0,0 +1,22 @@
+package com.library.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttachmentResponse {
+    private Long id;
+    private Long articleId;
+    private String filename;
+    private String contentType;
+    private Long size;
+    private String sha256;
+    private LocalDateTime createdAt;
+}
@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 @Builder
 public class AuthResponse {
     private String token;
+    private String refreshToken;
     
     @Builder.Default
     private String type = "Bearer";
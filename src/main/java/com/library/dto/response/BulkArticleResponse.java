@@ -0,0 +1,21 @@
+package com.library.dto.response;
+
+import com.library.domain.enums.BulkArticleOperation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkArticleResponse {
+    private BulkArticleOperation operation;
+    private Integer requested;
+    private Integer affected;
+    // Not found or not permitted for the current user
+    private List<Long> skippedIds;
+}
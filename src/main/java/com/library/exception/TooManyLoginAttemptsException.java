@@ -0,0 +1,16 @@
+package com.library.exception;
+
+import java.time.Duration;
+
+public class TooManyLoginAttemptsException extends RuntimeException {
+    private final Duration retryAfter;
+    
+    public TooManyLoginAttemptsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+    
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
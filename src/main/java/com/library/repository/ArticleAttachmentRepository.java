@@ -0,0 +1,28 @@
+package com.library.repository;
+
+import com.library.domain.entity.ArticleAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArticleAttachmentRepository extends JpaRepository<ArticleAttachment, Long> {
+    
+    List<ArticleAttachment> findByArticleIdOrderByCreatedAtAsc(Long articleId);
+    
+    Optional<ArticleAttachment> findByIdAndArticleId(Long id, Long articleId);
+    
+    long countBySha256(String sha256);
+    
+    @Query("SELECT DISTINCT a.sha256 FROM ArticleAttachment a WHERE a.articleId IN :articleIds")
+    List<String> findDistinctSha256ByArticleIdIn(Collection<Long> articleIds);
+    
+    @Modifying
+    @Query("DELETE FROM ArticleAttachment a WHERE a.articleId IN :articleIds")
+    int deleteByArticleIdIn(Collection<Long> articleIds);
+}
@@ -2,14 +2,17 @@ package com.library.repository;
 
 import com.library.domain.entity.Article;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ArticleRepository extends JpaRepository<Article, Long> {
+public interface ArticleRepository extends JpaRepository<Article, Long>, ArticleRepositoryCustom {
     
     List<Article> findByAuthorId(Long authorId);
     
@@ -25,4 +28,79 @@ public interface ArticleRepository extends JpaRepository<Article, Long> {
     
     @Query("SELECT a FROM Article a JOIN FETCH a.author WHERE a.id = :id")
     Optional<Article> findByIdWithAuthor(Long id);
+    
+    @Query("SELECT a FROM Article a LEFT JOIN FETCH a.author WHERE a.id IN :ids")
+    List<Article> findAllByIdWithAuthor(Collection<Long> ids);
+    
+    @Query("SELECT a.authorId, COUNT(a) FROM Article a GROUP BY a.authorId")
+    List<Object[]> countGroupedByAuthor();
+    
+    @Query("SELECT a.isPublic, COUNT(a) FROM Article a GROUP BY a.isPublic")
+    List<Object[]> countGroupedByVisibility();
+    
+    @Query(value = "SELECT CAST(created_at AS DATE), COUNT(*) FROM articles WHERE deleted = false " +
+                   "GROUP BY CAST(created_at AS DATE)",
+           nativeQuery = true)
+    List<Object[]> countGroupedByCreatedDay();
+    
+    long countByAuthorId(Long authorId);
+    
+    long countByIsPublic(Boolean isPublic);
+    
+    @Query("SELECT COUNT(a) FROM Article a WHERE a.createdAt >= :from AND a.createdAt < :to")
+    long countCreatedBetween(LocalDateTime from, LocalDateTime to);
+    
+    @Query("SELECT a.id AS id, a.authorId AS authorId, a.isPublic AS isPublic, a.createdAt AS createdAt, " +
+           "a.publishAt AS publishAt FROM Article a WHERE a.authorId = :authorId")
+    List<ArticleSummary> findSummariesByAuthorId(Long authorId);
+    
+    @Query("SELECT a.id AS id, a.authorId AS authorId, a.isPublic AS isPublic, a.createdAt AS createdAt, " +
+           "a.publishAt AS publishAt FROM Article a WHERE a.id = :id")
+    Optional<ArticleSummary> findSummaryById(Long id);
+    
+    @Query("SELECT a.id AS id, a.authorId AS authorId, a.isPublic AS isPublic, a.createdAt AS createdAt, " +
+           "a.publishAt AS publishAt FROM Article a WHERE a.id IN :ids")
+    List<ArticleSummary> findSummariesByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT a.id AS id, a.authorId AS authorId, a.isPublic AS isPublic, a.createdAt AS createdAt, " +
+           "a.publishAt AS publishAt FROM Article a WHERE a.id IN :ids AND a.authorId = :authorId")
+    List<ArticleSummary> findSummariesByIdInAndAuthorId(Collection<Long> ids, Long authorId);
+    
+    @Modifying
+    @Query("UPDATE Article a SET a.isPublic = :isPublic, a.publishAt = null, a.updatedAt = :now WHERE a.id IN :ids")
+    int updateVisibilityByIds(Collection<Long> ids, Boolean isPublic, LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE Article a SET a.authorId = :authorId, a.updatedAt = :now WHERE a.id IN :ids")
+    int reassignByIds(Collection<Long> ids, Long authorId, LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE Article a SET a.deleted = true, a.deletedAt = :deletedAt WHERE a.id IN :ids AND a.deleted = false")
+    int softDeleteByIds(Collection<Long> ids, LocalDateTime deletedAt);
+    
+    @Query("SELECT a.id AS id, a.authorId AS authorId, a.isPublic AS isPublic, a.createdAt AS createdAt, " +
+           "a.publishAt AS publishAt FROM Article a WHERE a.isPublic = false AND a.publishAt <= :until")
+    List<ArticleSummary> findScheduledPublications(LocalDateTime until);
+    
+    @Query("SELECT a.id FROM Article a WHERE a.isPublic = false AND a.publishAt <= :now")
+    List<Long> findDuePublicationIds(LocalDateTime now);
+    
+    // Guarded on the current state so concurrent or repeated runs only count rows they changed
+    @Modifying
+    @Query("UPDATE Article a SET a.isPublic = true, a.publishAt = null, a.updatedAt = :now " +
+           "WHERE a.id IN :ids AND a.isPublic = false AND a.publishAt <= :now")
+    int publishDue(Collection<Long> ids, LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE Article a SET a.deleted = true, a.deletedAt = :deletedAt WHERE a.authorId = :authorId AND a.deleted = false")
+    int softDeleteByAuthorId(Long authorId, LocalDateTime deletedAt);
+    
+    // Native so that soft-deleted rows are visible to the purge job
+    @Query(value = "SELECT id FROM articles WHERE deleted = true AND deleted_at < :cutoff ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findPurgeableIds(LocalDateTime cutoff, int limit);
+    
+    @Modifying
+    @Query(value = "DELETE FROM articles WHERE id IN (:ids) AND deleted = true", nativeQuery = true)
+    int purgeByIds(Collection<Long> ids);
 }
@@ -0,0 +1,14 @@
+package com.library.repository;
+
+import java.util.Map;
+
+public interface ArticleRepositoryCustom {
+    
+    /**
+     * Updates only the given attributes of one article, so unchanged columns (notably the
+     * content) are neither sent nor rewritten. Keys are entity attribute names.
+     *
+     * @return the number of rows updated
+     */
+    int updateAttributes(Long id, Map<String, Object> changes);
+}
@@ -0,0 +1,29 @@
+package com.library.repository;
+
+import com.library.domain.entity.Article;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.Map;
+
+public class ArticleRepositoryImpl implements ArticleRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public int updateAttributes(Long id, Map<String, Object> changes) {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Article> update = cb.createCriteriaUpdate(Article.class);
+        Root<Article> root = update.from(Article.class);
+        changes.forEach(update::set);
+        update.where(cb.equal(root.get("id"), id));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
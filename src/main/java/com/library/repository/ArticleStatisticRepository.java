@@ -0,0 +1,31 @@
+package com.library.repository;
+
+import com.library.domain.entity.ArticleStatistic;
+import com.library.domain.enums.StatisticDimension;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArticleStatisticRepository extends JpaRepository<ArticleStatistic, Long> {
+    
+    List<ArticleStatistic> findByDimension(StatisticDimension dimension);
+    
+    @Query("SELECT s FROM ArticleStatistic s WHERE s.dimension = :dimension AND s.statKey >= :fromKey")
+    List<ArticleStatistic> findByDimensionFromKey(StatisticDimension dimension, String fromKey);
+    
+    @Modifying
+    @Query("UPDATE ArticleStatistic s SET s.articleCount = s.articleCount + :delta " +
+           "WHERE s.dimension = :dimension AND s.statKey = :statKey")
+    int increment(StatisticDimension dimension, String statKey, long delta);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ArticleStatistic s WHERE s.dimension = :dimension AND s.statKey = :statKey")
+    Optional<ArticleStatistic> findForUpdate(StatisticDimension dimension, String statKey);
+}
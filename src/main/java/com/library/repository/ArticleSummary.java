@@ -0,0 +1,19 @@
+package com.library.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the small article columns, for callers that must not load the content.
+ */
+public interface ArticleSummary {
+    
+    Long getId();
+    
+    Long getAuthorId();
+    
+    Boolean getIsPublic();
+    
+    LocalDateTime getCreatedAt();
+    
+    LocalDateTime getPublishAt();
+}
@@ -5,10 +5,12 @@ import com.library.domain.enums.AuditAction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -28,4 +30,15 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     
     @Query("SELECT al FROM AuditLog al ORDER BY al.timestamp DESC")
     Page<AuditLog> findAllOrderByTimestampDesc(Pageable pageable);
+    
+    @Query("SELECT al.resourceId FROM AuditLog al WHERE al.action = :action AND al.timestamp >= :since " +
+           "AND al.resourceId IS NOT NULL GROUP BY al.resourceId ORDER BY COUNT(al) DESC")
+    List<Long> findMostFrequentResourceIds(AuditAction action, LocalDateTime since, Pageable pageable);
+    
+    @Query("SELECT al.id FROM AuditLog al WHERE al.timestamp < :cutoff ORDER BY al.id")
+    List<Long> findIdsOlderThan(LocalDateTime cutoff, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM AuditLog al WHERE al.id IN :ids")
+    int deleteByIds(Collection<Long> ids);
 }
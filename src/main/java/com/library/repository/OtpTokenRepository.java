@@ -1,13 +1,18 @@
 package com.library.repository;
 
 import com.library.domain.entity.OtpToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -19,10 +24,17 @@ public interface OtpTokenRepository extends JpaRepository<OtpToken, Long> {
     @Query("SELECT o FROM OtpToken o WHERE o.userId = :userId AND o.used = false AND o.expiresAt > :now ORDER BY o.createdAt DESC")
     Optional<OtpToken> findLatestValidOtpByUserId(Long userId, LocalDateTime now);
     
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OtpToken> findFirstByUserIdAndUsedFalseAndExpiresAtAfterOrderByCreatedAtDesc(Long userId, LocalDateTime now);
+    
+    // Used codes are never read again, so they go with the expired ones
+    @Query("SELECT o.id FROM OtpToken o WHERE o.expiresAt < :now OR o.used = true ORDER BY o.id")
+    List<Long> findPurgeableIds(LocalDateTime now, Pageable pageable);
+    
     @Modifying
     @Transactional
-    @Query("DELETE FROM OtpToken o WHERE o.expiresAt < :now")
-    void deleteExpiredTokens(LocalDateTime now);
+    @Query("DELETE FROM OtpToken o WHERE o.id IN :ids")
+    int deleteByIds(Collection<Long> ids);
     
     @Modifying
     @Transactional
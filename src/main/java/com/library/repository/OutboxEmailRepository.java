@@ -0,0 +1,34 @@
+package com.library.repository;
+
+import com.library.domain.entity.OutboxEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+    
+    @Query(value = "SELECT * FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<OutboxEmail> findDue(LocalDateTime now, int limit);
+    
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = com.library.domain.enums.OutboxEmailStatus.SENT, e.sentAt = :sentAt, " +
+           "e.attempts = e.attempts + 1, e.lastError = null, " +
+           "e.body = CASE WHEN e.sensitive = true THEN '' ELSE e.body END WHERE e.id IN :ids")
+    int markSent(Collection<Long> ids, LocalDateTime sentAt);
+    
+    @Query("SELECT e.id FROM OutboxEmail e WHERE e.status <> com.library.domain.enums.OutboxEmailStatus.PENDING " +
+           "AND e.createdAt < :cutoff ORDER BY e.id")
+    List<Long> findFinishedIdsBefore(LocalDateTime cutoff, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEmail e WHERE e.id IN :ids")
+    int deleteByIds(Collection<Long> ids);
+}
@@ -2,10 +2,15 @@ package com.library.repository;
 
 import com.library.domain.entity.User;
 import com.library.domain.enums.Role;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,14 +21,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     Optional<User> findByEmail(String email);
     
-    @Query("SELECT u FROM User u WHERE u.username = :usernameOrEmail OR u.email = :usernameOrEmail")
-    Optional<User> findByUsernameOrEmail(String usernameOrEmail);
+    Optional<User> findByUsernameNormalized(String usernameNormalized);
     
-    boolean existsByUsername(String username);
+    Optional<User> findByEmailNormalized(String emailNormalized);
     
-    boolean existsByEmail(String email);
+    @Query("SELECT u.securityVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findSecurityVersionById(Long id);
+    
+    boolean existsByUsernameNormalized(String usernameNormalized);
+    
+    boolean existsByEmailNormalized(String emailNormalized);
+    
+    long countByUsernameContaining(String fragment);
+    
+    // Raw columns, so the result does not depend on the normalized columns being backfilled
+    @Query("SELECT u.id, u.username, u.email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findIdentifiersAfter(long afterId, Pageable pageable);
     
     List<User> findByRole(Role role);
     
     List<User> findByAccountLocked(Boolean accountLocked);
+    
+    @Query("SELECT u.id FROM User u WHERE u.accountLocked = true AND u.lockedUntil < :now ORDER BY u.id")
+    List<Long> findExpiredLockIds(LocalDateTime now, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.accountLocked = false, u.lockedUntil = null, u.failedLoginAttempts = 0, " +
+           "u.lastFailedLoginAttempt = null WHERE u.id IN :ids AND u.lockedUntil < :now")
+    int unlockExpired(Collection<Long> ids, LocalDateTime now);
+    
+    // Rows created before the normalized columns existed
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.usernameNormalized = LOWER(TRIM(u.username)), u.emailNormalized = LOWER(TRIM(u.email)) " +
+           "WHERE u.usernameNormalized IS NULL OR u.emailNormalized IS NULL")
+    int backfillNormalizedIdentifiers();
 }
@@ -0,0 +1,43 @@
+package com.library.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt cost for the hardware the application runs on. Each cost step doubles the
+ * work, so timing a hash at the minimum cost is enough to predict every higher one; the result
+ * is the highest cost whose predicted hash time stays within the target.
+ */
+public final class BCryptStrengthCalibrator {
+    
+    private static final int SAMPLES = 5;
+    
+    private BCryptStrengthCalibrator() {
+    }
+    
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        if (minStrength < 4 || maxStrength > 31 || minStrength > maxStrength) {
+            throw new IllegalArgumentException("BCrypt strength range must be within 4..31");
+        }
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        // The first hash pays for class loading and JIT warm-up, so keep the fastest sample
+        long fastestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-password");
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+        }
+        return strengthFor(target.toNanos(), fastestNanos, minStrength, maxStrength);
+    }
+    
+    static int strengthFor(long targetNanos, long nanosAtMinStrength, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        double predicted = nanosAtMinStrength;
+        while (strength < maxStrength && predicted * 2 <= targetNanos) {
+            predicted *= 2;
+            strength++;
+        }
+        return strength;
+    }
+}
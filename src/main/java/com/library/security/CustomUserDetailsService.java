@@ -2,29 +2,73 @@ package com.library.security;
 
 import com.library.domain.entity.User;
 import com.library.repository.UserRepository;
+import com.library.service.UserLookupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.Collections;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+    
+    private static final Logger log = LoggerFactory.getLogger(CustomUserDetailsService.class);
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserLookupService userLookupService;
+    
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+    
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        User user = userRepository.findByUsernameOrEmail(usernameOrEmail)
+        UserDetails cached = userDetailsCache.get(usernameOrEmail);
+        if (cached != null) {
+            return cached;
+        }
+        
+        User user = userLookupService.findByIdentifier(usernameOrEmail)
                 .orElseThrow(() -> new UsernameNotFoundException(
                     "User not found with username or email: " + usernameOrEmail));
         
+        UserDetails userDetails = toUserDetails(user);
+        // A lock ends by time alone, without an eviction, so locked users are always re-read
+        if (userDetails.isAccountNonLocked()) {
+            userDetailsCache.put(userDetails);
+        }
+        return userDetails;
+    }
+    
+    /**
+     * Stores a re-encoded hash after a successful login with an outdated one. Only the hash
+     * changes, so issued tokens stay valid.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException(
+                    "User not found with username: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        userDetailsCache.evict(user.getUsername());
+        log.info("Re-encoded password hash for user {}", user.getId());
+        return toUserDetails(user);
+    }
+    
+    private UserDetails toUserDetails(User user) {
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
                 user.getPassword(),
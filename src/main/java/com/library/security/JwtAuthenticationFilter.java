@@ -1,13 +1,17 @@
 package com.library.security;
 
-import com.library.util.JwtUtil;
+import com.library.service.SecurityVersionService;
+import com.library.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,16 +19,26 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
     
     @Autowired
     private UserDetailsService userDetailsService;
     
+    @Autowired
+    private SecurityVersionService securityVersionService;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Value("${jwt.stateless-principal:true}")
+    private boolean statelessPrincipal;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                     HttpServletResponse response, 
@@ -32,22 +46,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authorizationHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwt = null;
+        JwtClaims claims = null;
         
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // Signature and expiry are checked once per token, later requests hit the cache
+                claims = verifiedTokenCache.verify(jwt);
             } catch (Exception e) {
-                logger.error("JWT Token extraction failed: " + e.getMessage());
+                logger.error("JWT Token verification failed: " + e.getMessage());
             }
         }
         
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (claims != null && tokenRevocationService.isRevoked(claims.getTokenId())) {
+            logger.debug("JWT Token rejected, token " + claims.getTokenId() + " was revoked");
+            claims = null;
+        }
+        
+        if (claims != null && claims.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = statelessPrincipal && isStateless(claims)
+                    ? principalFromClaims(claims)
+                    : loadPrincipal(claims);
             
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authenticationToken = 
                     new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
@@ -59,4 +81,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+    
+    // Tokens issued before security versions existed still go through the database
+    private boolean isStateless(JwtClaims claims) {
+        return claims.getUserId() != null && claims.getRole() != null && claims.getSecurityVersion() != null;
+    }
+    
+    /**
+     * Builds the principal from the token alone; only the cached security version is checked,
+     * so a role change, deactivation or deletion rejects the token without a user lookup.
+     */
+    private UserDetails principalFromClaims(JwtClaims claims) {
+        Long currentVersion = securityVersionService.getVersion(claims.getUserId());
+        if (!claims.getSecurityVersion().equals(currentVersion)) {
+            logger.debug("JWT Token rejected, security version changed for user " + claims.getUserId());
+            return null;
+        }
+        return new User(claims.getSubject(), "",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + claims.getRole())));
+    }
+    
+    private UserDetails loadPrincipal(JwtClaims claims) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        return claims.getSubject().equals(userDetails.getUsername()) ? userDetails : null;
+    }
 }
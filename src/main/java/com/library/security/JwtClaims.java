@@ -0,0 +1,29 @@
+package com.library.security;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a verified token's claims. Only produced by
+ * {@link com.library.util.JwtUtil#verify(String)}, so holding one means the signature and
+ * expiry were checked.
+ */
+@Getter
+@Builder
+public final class JwtClaims {
+    
+    private final String tokenId;
+    private final String subject;
+    private final Long userId;
+    private final String email;
+    private final String role;
+    private final Long securityVersion;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
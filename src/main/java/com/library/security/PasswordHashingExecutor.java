@@ -0,0 +1,128 @@
+package com.library.security;
+
+import com.library.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a small dedicated pool so a login or registration burst cannot
+ * occupy every request thread with BCrypt work.
+ * <p>
+ * The pool has a fixed number of threads and a bounded queue. A request that finds the queue
+ * full, or waits longer than {@code password-hashing.max-wait}, fails fast with a
+ * {@link ServiceOverloadedException} (503 with {@code Retry-After}) instead of queueing without
+ * limit. Queue depth, active hashes, wait and hash time, and rejections are published as metrics.
+ */
+@Component
+public class PasswordHashingExecutor {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${password-hashing.threads:0}")
+    private int threads;
+    
+    @Value("${password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+    
+    @Value("${password-hashing.max-wait:5s}")
+    private Duration maxWait;
+    
+    @Value("${password-hashing.retry-after:2s}")
+    private Duration retryAfter;
+    
+    private ThreadPoolExecutor executor;
+    private Counter rejected;
+    
+    @PostConstruct
+    public void start() {
+        // 0 means one thread less than there are cores, leaving a core for everything else
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        
+        Gauge.builder("password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes in progress")
+                .register(meterRegistry);
+        rejected = Counter.builder("password.hashing.rejected")
+                .description("Password hashes refused because the hashing pool was saturated")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Runs {@code work} on the hashing pool and waits for the result.
+     *
+     * @param operation tag for the latency metrics, e.g. {@code encode} or {@code matches}
+     * @throws ServiceOverloadedException if the pool is saturated
+     */
+    public <T> T execute(String operation, Supplier<T> work) {
+        Timer waitTimer = meterRegistry.timer("password.hashing.wait", "operation", operation);
+        Timer hashTimer = meterRegistry.timer("password.hashing.duration", "operation", operation);
+        long submittedAt = System.nanoTime();
+        
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.record(work);
+            });
+        } catch (RejectedExecutionException e) {
+            throw overloaded();
+        }
+        
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw overloaded();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+    
+    private ServiceOverloadedException overloaded() {
+        rejected.increment();
+        return new ServiceOverloadedException("Authentication is temporarily overloaded. Please try again shortly.",
+                retryAfter);
+    }
+}
@@ -1,31 +1,116 @@
 package com.library.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.util.ClientIpResolver;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Collections;
 
+/**
+ * Per-client token buckets of {@code rate-limit.requests-per-minute}.
+ * <p>
+ * Buckets live in a bounded cache rather than a map that grows with every address seen. A bucket
+ * idle for {@code rate-limit.bucket-idle-timeout} is dropped; with the default of one refill
+ * period it would have been full again anyway. At {@code rate-limit.max-buckets} Caffeine evicts
+ * by frequency, so a flood of one-off (or spoofed) addresses displaces itself rather than the
+ * buckets of clients in steady use. Live buckets and evictions are published under the
+ * {@code rate-limit.buckets} cache metrics, rejections as {@code rate.limit.rejected}.
+ * <p>
+ * Clients are keyed by the address {@link ClientIpResolver} resolves, which only honours
+ * {@code X-Forwarded-For} from trusted proxies.
+ * <p>
+ * With {@code rate-limit.store: redis} the buckets are kept in Redis and shared by all nodes, so
+ * the limit holds per client rather than per client and node. When Redis is unreachable the
+ * filter falls back to the per-node buckets and retries Redis after
+ * {@code rate-limit.redis.retry-interval}, so an outage does not add a timeout to every request.
+ */
 @Component
 public class RateLimitFilter extends OncePerRequestFilter {
     
+    static final String CACHE_NAME = "rate-limit.buckets";
+    
+    private static final Duration REFILL_PERIOD = Duration.ofMinutes(1);
+    
+    private static final DefaultRedisScript<Long> RATE_LIMIT_SCRIPT = new DefaultRedisScript<>();
+    
+    static {
+        RATE_LIMIT_SCRIPT.setLocation(new ClassPathResource("redis/rate-limit.lua"));
+        RATE_LIMIT_SCRIPT.setResultType(Long.class);
+    }
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+    
     @Value("${rate-limit.enabled:true}")
     private boolean rateLimitEnabled;
     
     @Value("${rate-limit.requests-per-minute:60}")
     private int requestsPerMinute;
     
-    private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
+    @Value("${rate-limit.max-buckets:100000}")
+    private long maxBuckets;
+    
+    @Value("${rate-limit.bucket-idle-timeout:1m}")
+    private Duration bucketIdleTimeout;
+    
+    @Value("${rate-limit.store:redis}")
+    private String store;
+    
+    @Value("${rate-limit.redis.key-prefix:rate-limit:}")
+    private String keyPrefix;
+    
+    @Value("${rate-limit.redis.retry-interval:5s}")
+    private Duration redisRetryInterval;
+    
+    private Cache<String, Bucket> cache;
+    private Counter rejected;
+    private Counter redisErrors;
+    
+    // After a Redis error, buckets are taken locally until this time
+    private volatile long redisRetryAt;
+    
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(bucketIdleTimeout)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        rejected = Counter.builder("rate.limit.rejected")
+                .description("Requests rejected with 429 by the rate limiter")
+                .register(meterRegistry);
+        redisErrors = Counter.builder("rate.limit.redis.errors")
+                .description("Redis errors that switched the rate limiter to per-node buckets")
+                .register(meterRegistry);
+        redisRetryAt = System.nanoTime();
+    }
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -37,12 +122,10 @@ public class RateLimitFilter extends OncePerRequestFilter {
             return;
         }
         
-        String key = getClientKey(request);
-        Bucket bucket = cache.computeIfAbsent(key, k -> createNewBucket());
-        
-        if (bucket.tryConsume(1)) {
+        if (tryConsume(clientIpResolver.resolve(request))) {
             filterChain.doFilter(request, response);
         } else {
+            rejected.increment();
             response.setStatus(429); // 429 Too Many Requests
             response.setContentType("application/json");
             response.getWriter().write(
@@ -51,18 +134,25 @@ public class RateLimitFilter extends OncePerRequestFilter {
         }
     }
     
-    private String getClientKey(HttpServletRequest request) {
-        String ipAddress = request.getHeader("X-Forwarded-For");
-        if (ipAddress == null || ipAddress.isEmpty()) {
-            ipAddress = request.getRemoteAddr();
+    private boolean tryConsume(String key) {
+        if ("redis".equalsIgnoreCase(store) && System.nanoTime() - redisRetryAt >= 0) {
+            try {
+                Long remaining = redisTemplate.execute(RATE_LIMIT_SCRIPT, Collections.singletonList(keyPrefix + key),
+                        String.valueOf(requestsPerMinute), String.valueOf(REFILL_PERIOD.toMillis()));
+                return remaining == null || remaining >= 0;
+            } catch (RuntimeException e) {
+                redisErrors.increment();
+                redisRetryAt = System.nanoTime() + redisRetryInterval.toNanos();
+                logger.warn("Rate limiting per node for " + redisRetryInterval + ", Redis error: " + e.getMessage());
+            }
         }
-        return ipAddress;
+        return cache.get(key, k -> createNewBucket()).tryConsume(1);
     }
     
     private Bucket createNewBucket() {
         Bandwidth limit = Bandwidth.classic(
             requestsPerMinute, 
-            Refill.intervally(requestsPerMinute, Duration.ofMinutes(1))
+            Refill.intervally(requestsPerMinute, REFILL_PERIOD)
         );
         return Bucket.builder()
                 .addLimit(limit)
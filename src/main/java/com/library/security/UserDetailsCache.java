@@ -0,0 +1,168 @@
+package com.library.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.domain.entity.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Recently loaded {@link UserDetails}, keyed by normalized username, so logins and requests
+ * authenticated with tokens that predate stateless principals skip the user query.
+ * <p>
+ * Code that changes a user's password, role, enabled flag, lock or username calls
+ * {@link #evict}. The entry is dropped on this node when the transaction commits, and other nodes
+ * are told over a Redis channel. The TTL bounds how long a missed invalidation can last, for
+ * example one published while Redis was unreachable.
+ */
+@Component
+public class UserDetailsCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(UserDetailsCache.class);
+    
+    static final String CACHE_NAME = "user.details";
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${security.user-details-cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${security.user-details-cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${security.user-details-cache.ttl:60s}")
+    private Duration ttl;
+    
+    @Value("${security.user-details-cache.broadcast:true}")
+    private boolean broadcast;
+    
+    @Value("${security.user-details-cache.channel:user-details:invalidate}")
+    private String channel;
+    
+    private Cache<String, UserDetails> details;
+    private RedisMessageListenerContainer listenerContainer;
+    
+    @PostConstruct
+    public void init() {
+        details = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, CACHE_NAME);
+        Gauge.builder("user.details.cache.hit.ratio", details, cache -> cache.stats().hitRate())
+                .description("Share of user details lookups served from the cache")
+                .register(meterRegistry);
+        
+        if (enabled && broadcast) {
+            subscribe();
+        }
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (listenerContainer != null) {
+            try {
+                listenerContainer.destroy();
+            } catch (Exception e) {
+                log.debug("Error stopping user details invalidation listener: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * @return a copy of the cached details, or {@code null} if the username is not cached. Emails
+     *         are never cached, since evictions are by username.
+     */
+    public UserDetails get(String username) {
+        String key = key(username);
+        if (!enabled || key == null) {
+            return null;
+        }
+        UserDetails cached = details.getIfPresent(key);
+        // Authentication erases the password on the instance it returns, so never hand out the cached one
+        return cached == null ? null : org.springframework.security.core.userdetails.User.withUserDetails(cached).build();
+    }
+    
+    public void put(UserDetails userDetails) {
+        String key = key(userDetails.getUsername());
+        if (enabled && key != null) {
+            details.put(key, org.springframework.security.core.userdetails.User.withUserDetails(userDetails).build());
+        }
+    }
+    
+    /**
+     * Drops the username on every node, after the current transaction commits if there is one.
+     */
+    public void evict(String username) {
+        String key = key(username);
+        if (key == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(key);
+                }
+            });
+        } else {
+            evictNow(key);
+        }
+    }
+    
+    private void evictNow(String key) {
+        details.invalidate(key);
+        if (enabled && broadcast) {
+            try {
+                redisTemplate.convertAndSend(channel, key);
+            } catch (RuntimeException e) {
+                log.warn("User details evicted on this node only, Redis error: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private void subscribe() {
+        try {
+            listenerContainer = new RedisMessageListenerContainer();
+            listenerContainer.setConnectionFactory(connectionFactory);
+            listenerContainer.addMessageListener(
+                    (message, pattern) -> details.invalidate(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(channel));
+            listenerContainer.afterPropertiesSet();
+            listenerContainer.start();
+        } catch (RuntimeException e) {
+            log.warn("User details invalidations from other nodes are not received: {}", e.getMessage());
+        }
+    }
+    
+    private static String key(String username) {
+        String key = User.normalizeIdentifier(username);
+        return key == null || key.isEmpty() || key.indexOf('@') >= 0 ? null : key;
+    }
+}
@@ -0,0 +1,97 @@
+package com.library.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.library.util.JwtUtil;
+import com.library.util.TokenDigest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Remembers tokens that already passed verification, so a client re-sending the same bearer
+ * token skips the parse and HMAC check until the token expires.
+ * <p>
+ * Entries are keyed by a SHA-256 digest rather than the token itself and expire at the token's
+ * {@code exp}. Only verified tokens are admitted, so random or forged tokens can never fill
+ * the cache; the size bound and Caffeine's frequency-based admission keep a burst of freshly
+ * issued tokens from evicting the ones in steady use.
+ */
+@Component
+public class VerifiedTokenCache {
+    
+    static final String CACHE_NAME = "jwt.verified-tokens";
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${jwt.verified-token-cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${jwt.verified-token-cache.max-size:50000}")
+    private long maxSize;
+    
+    private Cache<String, JwtClaims> tokens;
+    
+    @PostConstruct
+    public void init() {
+        tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, CACHE_NAME);
+    }
+    
+    /**
+     * Same contract as {@link JwtUtil#verify(String)}, served from the cache when possible.
+     */
+    public JwtClaims verify(String token) {
+        if (!enabled) {
+            return jwtUtil.verify(token);
+        }
+        String key = TokenDigest.sha256(token);
+        JwtClaims cached = tokens.getIfPresent(key);
+        // Expiry is approximate in Caffeine, so re-check exp on every hit
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            return cached;
+        }
+        JwtClaims claims = jwtUtil.verify(token);
+        if (claims.getExpiresAt() != null) {
+            tokens.put(key, claims);
+        }
+        return claims;
+    }
+    
+    public void invalidate(String token) {
+        tokens.invalidate(TokenDigest.sha256(token));
+    }
+    
+    private static final class UntilTokenExpiry implements Expiry<String, JwtClaims> {
+        
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), claims.getExpiresAt()).toNanos());
+        }
+        
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
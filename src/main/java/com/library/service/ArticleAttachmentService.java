@@ -0,0 +1,139 @@
+package com.library.service;
+
+import com.library.domain.entity.Article;
+import com.library.domain.entity.ArticleAttachment;
+import com.library.domain.entity.User;
+import com.library.domain.enums.AuditAction;
+import com.library.dto.response.AttachmentResponse;
+import com.library.exception.ResourceNotFoundException;
+import com.library.repository.ArticleAttachmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class ArticleAttachmentService {
+    
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    
+    @Autowired
+    private ArticleAttachmentRepository attachmentRepository;
+    
+    @Autowired
+    private AttachmentStorageService storageService;
+    
+    @Autowired
+    private AttachmentBlobService blobService;
+    
+    @Autowired
+    private ArticleService articleService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AuditLogService auditLogService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // Not transactional on purpose: the body is streamed to disk before the short transaction
+    // that references the blob and writes the row
+    public AttachmentResponse uploadAttachment(Long articleId, String filename, String contentType,
+                                               InputStream content, String currentUsername) throws IOException {
+        Article article = articleService.getUpdatableArticle(articleId, currentUsername);
+        User currentUser = userService.getUserEntityByUsername(currentUsername);
+        String cleanFilename = sanitizeFilename(filename);
+        
+        AttachmentStorageService.StoredBlob blob = storageService.store(content);
+        
+        ArticleAttachment pending = ArticleAttachment.builder()
+                .articleId(article.getId())
+                .filename(cleanFilename)
+                .contentType(StringUtils.hasText(contentType) ? contentType : DEFAULT_CONTENT_TYPE)
+                .size(blob.getSize())
+                .sha256(blob.getSha256())
+                .uploadedBy(currentUser.getId())
+                .build();
+        
+        ArticleAttachment attachment;
+        try {
+            attachment = new TransactionTemplate(transactionManager).execute(status -> {
+                blobService.acquire(blob);
+                return attachmentRepository.save(pending);
+            });
+        } finally {
+            storageService.discard(blob);
+        }
+        
+        auditLogService.logArticleAction(AuditAction.ARTICLE_ATTACHMENT_ADDED,
+            currentUser.getId(), currentUser.getUsername(), article.getId(),
+            "Attached " + cleanFilename + " (" + blob.getSize() + " bytes)");
+        
+        return convertToResponse(attachment);
+    }
+    
+    public List<AttachmentResponse> getAttachments(Long articleId, String currentUsername) {
+        Article article = articleService.getViewableArticle(articleId, currentUsername);
+        return attachmentRepository.findByArticleIdOrderByCreatedAtAsc(article.getId()).stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+    
+    public ArticleAttachment getAttachmentForDownload(Long articleId, Long attachmentId, String currentUsername) {
+        Article article = articleService.getViewableArticle(articleId, currentUsername);
+        ArticleAttachment attachment = attachmentRepository.findByIdAndArticleId(attachmentId, article.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment", "id", attachmentId));
+        
+        if (!storageService.exists(attachment.getSha256())) {
+            throw new ResourceNotFoundException("Attachment content", "id", attachmentId);
+        }
+        
+        return attachment;
+    }
+    
+    public void deleteAttachment(Long articleId, Long attachmentId, String currentUsername) {
+        Article article = articleService.getUpdatableArticle(articleId, currentUsername);
+        User currentUser = userService.getUserEntityByUsername(currentUsername);
+        ArticleAttachment attachment = attachmentRepository.findByIdAndArticleId(attachmentId, article.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment", "id", attachmentId));
+        
+        // Blobs are shared between identical uploads; only drop the file once unreferenced
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            attachmentRepository.delete(attachment);
+            blobService.releaseUnreferenced(Collections.singletonList(attachment.getSha256()));
+        });
+        
+        auditLogService.logArticleAction(AuditAction.ARTICLE_ATTACHMENT_DELETED,
+            currentUser.getId(), currentUser.getUsername(), article.getId(),
+            "Removed attachment " + attachment.getFilename());
+    }
+    
+    private String sanitizeFilename(String filename) {
+        String clean = StringUtils.getFilename(StringUtils.cleanPath(filename == null ? "" : filename));
+        if (!StringUtils.hasText(clean) || clean.length() > 255) {
+            throw new IllegalArgumentException("A valid filename (max 255 characters) is required");
+        }
+        return clean;
+    }
+    
+    private AttachmentResponse convertToResponse(ArticleAttachment attachment) {
+        return AttachmentResponse.builder()
+                .id(attachment.getId())
+                .articleId(attachment.getArticleId())
+                .filename(attachment.getFilename())
+                .contentType(attachment.getContentType())
+                .size(attachment.getSize())
+                .sha256(attachment.getSha256())
+                .createdAt(attachment.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,204 @@
+package com.library.service;
+
+import com.library.domain.entity.User;
+import com.library.domain.enums.Role;
+import com.library.dto.response.ArticleResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Article caches, split so that each role only ever reads a list built for what it may see:
+ * <ul>
+ *   <li>{@code articles} - single articles by id</li>
+ *   <li>{@code article-lists} - the {@code all} (SUPER_ADMIN, EDITOR) and {@code public} (VIEWER) lists</li>
+ *   <li>{@code article-author-lists} - per CONTRIBUTOR lists (own + public), keyed by author id</li>
+ * </ul>
+ * Cache failures fall back to the loader so Redis outages degrade to database reads.
+ */
+@Service
+public class ArticleCacheService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ArticleCacheService.class);
+    
+    public static final String ARTICLES_CACHE = "articles";
+    public static final String ARTICLE_LISTS_CACHE = "article-lists";
+    public static final String AUTHOR_LISTS_CACHE = "article-author-lists";
+    
+    public static final String PARTITION_ALL = "all";
+    public static final String PARTITION_PUBLIC = "public";
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    public ArticleResponse getArticle(Long id, Supplier<ArticleResponse> loader) {
+        return getOrLoad(ARTICLES_CACHE, id, loader);
+    }
+    
+    public void putArticle(ArticleResponse article) {
+        put(ARTICLES_CACHE, article.getId(), article);
+    }
+    
+    public List<ArticleResponse> getArticleList(User user, Supplier<List<ArticleResponse>> loader) {
+        if (user.getRole() == Role.SUPER_ADMIN || user.getRole() == Role.EDITOR) {
+            return getOrLoad(ARTICLE_LISTS_CACHE, PARTITION_ALL, loader);
+        }
+        if (user.getRole() == Role.VIEWER) {
+            return getOrLoad(ARTICLE_LISTS_CACHE, PARTITION_PUBLIC, loader);
+        }
+        return getOrLoad(AUTHOR_LISTS_CACHE, user.getId(), loader);
+    }
+    
+    public void putArticleList(String partition, List<ArticleResponse> articles) {
+        put(ARTICLE_LISTS_CACHE, partition, articles);
+    }
+    
+    /**
+     * Clears every article cache once the surrounding transaction commits, so readers
+     * cannot repopulate entries from uncommitted state.
+     */
+    public void evictAll() {
+        afterCommit(() -> {
+            clear(ARTICLES_CACHE);
+            clear(ARTICLE_LISTS_CACHE);
+            clear(AUTHOR_LISTS_CACHE);
+        });
+    }
+    
+    /**
+     * Evicts only what a change to one article can affect: its entry, the {@code all} list,
+     * and either every public-facing list or just the author's own list.
+     */
+    public void evictArticle(Long id, Long authorId, boolean publiclyVisible) {
+        afterCommit(() -> {
+            evict(ARTICLES_CACHE, id);
+            evict(ARTICLE_LISTS_CACHE, PARTITION_ALL);
+            if (publiclyVisible) {
+                evict(ARTICLE_LISTS_CACHE, PARTITION_PUBLIC);
+                clear(AUTHOR_LISTS_CACHE);
+            } else {
+                evict(AUTHOR_LISTS_CACHE, authorId);
+            }
+        });
+    }
+    
+    /**
+     * Evicts a set of articles and every list, once, for changes that touch many articles.
+     */
+    public void evictArticles(Collection<Long> ids) {
+        afterCommit(() -> {
+            evictKeys(ARTICLES_CACHE, ids);
+            clear(ARTICLE_LISTS_CACHE);
+            clear(AUTHOR_LISTS_CACHE);
+        });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> T getOrLoad(String cacheName, Object key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        
+        try {
+            Cache.ValueWrapper cached = cache.get(key);
+            if (cached != null && cached.get() != null) {
+                return (T) cached.get();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cache read failed for {}::{}, loading from database: {}", cacheName, key, e.getMessage());
+            return loader.get();
+        }
+        
+        T value = loader.get();
+        put(cacheName, key, value);
+        return value;
+    }
+    
+    private void put(String cacheName, Object key, Object value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || value == null) {
+            return;
+        }
+        try {
+            cache.put(key, value);
+        } catch (RuntimeException e) {
+            log.warn("Cache write failed for {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+    
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.evict(key);
+        } catch (RuntimeException e) {
+            log.warn("Cache evict failed for {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+    
+    /**
+     * Evicts many keys with one multi-key {@code DEL} instead of a round trip per key.
+     */
+    private void evictKeys(String cacheName, Collection<?> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (!(cache instanceof RedisCache redisCache)) {
+            keys.forEach(key -> evict(cacheName, key));
+            return;
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        String prefix = config.usePrefix() ? config.getKeyPrefixFor(cacheName) : "";
+        List<String> redisKeys = keys.stream().map(key -> prefix + key).collect(Collectors.toList());
+        try {
+            redisTemplate.delete(redisKeys);
+        } catch (RuntimeException e) {
+            log.warn("Cache evict failed for {} keys in {}: {}", redisKeys.size(), cacheName, e.getMessage());
+        }
+    }
+    
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.clear();
+        } catch (RuntimeException e) {
+            log.warn("Cache clear failed for {}: {}", cacheName, e.getMessage());
+        }
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
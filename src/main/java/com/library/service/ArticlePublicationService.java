@@ -0,0 +1,200 @@
+package com.library.service;
+
+import com.library.repository.ArticleRepository;
+import com.library.repository.ArticleSummary;
+import com.library.util.HashedTimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes scheduled articles at their {@code publishAt} time without polling the table.
+ * <p>
+ * Every node periodically loads the publications due within the look-ahead horizon into a
+ * {@link HashedTimingWheel}; articles scheduled on this node are added directly. When entries
+ * expire, the node takes the publication lease and publishes everything that is due with one
+ * set-based update, so articles scheduled on other nodes are picked up too. The update only
+ * touches rows that are still unpublished, which makes a duplicate run harmless.
+ */
+@Service
+public class ArticlePublicationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ArticlePublicationService.class);
+    
+    static final String LEASE_NAME = "article-publication";
+    
+    @Autowired
+    private ArticleRepository articleRepository;
+    
+    @Autowired
+    private ArticleStatisticsService articleStatisticsService;
+    
+    @Autowired
+    private ArticleCacheService articleCacheService;
+    
+    @Autowired
+    private LeaseService leaseService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${article-publication.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${article-publication.tick:1s}")
+    private Duration tick;
+    
+    @Value("${article-publication.wheel-size:512}")
+    private int wheelSize;
+    
+    @Value("${article-publication.horizon:10m}")
+    private Duration horizon;
+    
+    @Value("${article-publication.lease-ttl:30s}")
+    private Duration leaseTtl;
+    
+    @Value("${article-publication.retry-delay:2s}")
+    private Duration retryDelay;
+    
+    private final Map<Long, HashedTimingWheel.Timeout<Long>> scheduled = new ConcurrentHashMap<>();
+    private HashedTimingWheel<Long> wheel;
+    private ScheduledExecutorService timer;
+    
+    @PostConstruct
+    public void start() {
+        wheel = new HashedTimingWheel<>(tick, wheelSize, System.currentTimeMillis());
+        if (!enabled) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "article-publication-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(this::onTick, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+    
+    /**
+     * Adds or moves the timer for an article. Publications beyond the horizon are left to
+     * {@link #loadUpcoming()}, which keeps the wheel small.
+     * <p>
+     * Inside a transaction the timer is only added once it commits, so it never fires before
+     * the article row is visible.
+     */
+    public void schedule(Long articleId, LocalDateTime publishAt) {
+        if (!enabled || publishAt == null || publishAt.isAfter(LocalDateTime.now().plus(horizon))) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addTimer(articleId, publishAt);
+                }
+            });
+        } else {
+            addTimer(articleId, publishAt);
+        }
+    }
+    
+    private void addTimer(Long articleId, LocalDateTime publishAt) {
+        long deadline = publishAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        HashedTimingWheel.Timeout<Long> previous = scheduled.put(articleId, wheel.schedule(articleId, deadline));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+    
+    /**
+     * Loads every unpublished article due within the horizon, including overdue ones left
+     * behind while no node was running. The load interval must be shorter than the horizon.
+     */
+    @Scheduled(fixedDelayString = "${article-publication.load-interval:300000}")
+    public void loadUpcoming() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<ArticleSummary> upcoming = articleRepository.findScheduledPublications(LocalDateTime.now().plus(horizon));
+            upcoming.forEach(article -> schedule(article.getId(), article.getPublishAt()));
+        } catch (RuntimeException e) {
+            log.error("Failed to load scheduled publications: {}", e.getMessage(), e);
+        }
+    }
+    
+    void onTick() {
+        try {
+            List<Long> due = wheel.advance(System.currentTimeMillis());
+            if (due.isEmpty()) {
+                return;
+            }
+            due.forEach(id -> scheduled.computeIfPresent(id, (key, timeout) -> timeout.isExpired() ? null : timeout));
+            
+            String token = leaseService.tryAcquire(LEASE_NAME, leaseTtl);
+            if (token == null) {
+                // Another node is publishing; check again shortly in case it ran just before these were due
+                long retryAt = System.currentTimeMillis() + retryDelay.toMillis();
+                due.forEach(id -> scheduled.computeIfAbsent(id, key -> wheel.schedule(key, retryAt)));
+                return;
+            }
+            try {
+                publishDue();
+            } finally {
+                leaseService.release(LEASE_NAME, token);
+            }
+        } catch (RuntimeException e) {
+            log.error("Scheduled publication failed: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Publishes every article whose time has come in one transaction and one UPDATE.
+     *
+     * @return the number of articles published
+     */
+    public int publishDue() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        Integer published = template.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = articleRepository.findDuePublicationIds(now);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            int count = articleRepository.publishDue(ids, now);
+            articleStatisticsService.recordVisibilityChange(false, true, count);
+            articleCacheService.evictArticles(ids);
+            return count;
+        });
+        
+        if (published != null && published > 0) {
+            log.info("Published {} scheduled articles", published);
+        }
+        return published == null ? 0 : published;
+    }
+}
@@ -0,0 +1,130 @@
+package com.library.service;
+
+import com.library.repository.ArticleAttachmentRepository;
+import com.library.repository.ArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Physically removes soft-deleted articles in the background. Each chunk runs in its own
+ * short transaction and the job pauses between chunks, so purging a large backlog never
+ * holds long locks or saturates the database. The scheduled run holds a cluster-wide lease,
+ * so one node purges at a time.
+ */
+@Service
+public class ArticlePurgeService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ArticlePurgeService.class);
+    
+    private static final String PURGE_LEASE = "article-purge";
+    
+    @Autowired
+    private ArticleRepository articleRepository;
+    
+    @Autowired
+    private ArticleAttachmentRepository attachmentRepository;
+    
+    @Autowired
+    private AttachmentBlobService blobService;
+    
+    @Autowired
+    private LeaseService leaseService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${article-purge.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${article-purge.grace-period:1h}")
+    private Duration gracePeriod;
+    
+    @Value("${article-purge.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${article-purge.max-chunks-per-run:20}")
+    private int maxChunksPerRun;
+    
+    @Value("${article-purge.pause-between-chunks:200ms}")
+    private Duration pauseBetweenChunks;
+    
+    @Value("${article-purge.lease-ttl:10m}")
+    private Duration leaseTtl;
+    
+    @Scheduled(fixedDelayString = "${article-purge.interval:60000}",
+               initialDelayString = "${article-purge.interval:60000}")
+    public void scheduledPurge() {
+        if (!enabled) {
+            return;
+        }
+        String lease = leaseService.tryAcquire(PURGE_LEASE, leaseTtl);
+        if (lease == null) {
+            return;
+        }
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.error("Article purge failed: {}", e.getMessage(), e);
+        } finally {
+            leaseService.release(PURGE_LEASE, lease);
+        }
+    }
+    
+    /**
+     * @return the number of articles removed in this run
+     */
+    public int purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(gracePeriod);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        
+        int purged = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer articles = template.execute(status -> purgeChunk(cutoff));
+            if (articles == null || articles == 0) {
+                break;
+            }
+            purged += articles;
+            
+            if (articles < chunkSize || !pause()) {
+                break;
+            }
+        }
+        
+        if (purged > 0) {
+            log.info("Purged {} soft-deleted articles", purged);
+        }
+        return purged;
+    }
+    
+    private int purgeChunk(LocalDateTime cutoff) {
+        List<Long> ids = articleRepository.findPurgeableIds(cutoff, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<String> blobs = attachmentRepository.findDistinctSha256ByArticleIdIn(ids);
+        attachmentRepository.deleteByArticleIdIn(ids);
+        // Blobs are content-addressed and may be shared, so only the unreferenced ones go
+        blobService.releaseUnreferenced(blobs);
+        return articleRepository.purgeByIds(ids);
+    }
+    
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenChunks.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.library.service;
+
+import com.library.domain.entity.Article;
+import com.library.domain.entity.ArticleStatistic;
+import com.library.domain.enums.StatisticDimension;
+import com.library.dto.response.ArticleStatisticsResponse;
+import com.library.repository.ArticleRepository;
+import com.library.repository.ArticleStatisticRepository;
+import com.library.repository.ArticleSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Maintains pre-aggregated article counters. Writers call the {@code record*} methods inside
+ * their own transaction so counters commit or roll back together with the article change;
+ * reads never touch the articles table. {@link #reconcile()} repairs any drift.
+ */
+@Service
+public class ArticleStatisticsService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ArticleStatisticsService.class);
+    
+    static final String PUBLIC = "PUBLIC";
+    static final String PRIVATE = "PRIVATE";
+    
+    private static final String RECONCILE_LEASE = "article-stats:reconcile";
+    
+    @Autowired
+    private ArticleStatisticRepository statisticRepository;
+    
+    @Autowired
+    private ArticleRepository articleRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private LeaseService leaseService;
+    
+    @Value("${article-stats.reconcile-lease-ttl:30m}")
+    private Duration leaseTtl;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Article article) {
+        increment(StatisticDimension.AUTHOR, String.valueOf(article.getAuthorId()), 1);
+        increment(StatisticDimension.VISIBILITY, visibilityKey(article.getIsPublic()), 1);
+        increment(StatisticDimension.CREATED_DAY, dayKey(article), 1);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordVisibilityChange(Boolean wasPublic, Boolean isPublic) {
+        recordVisibilityChange(wasPublic, isPublic, 1);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordVisibilityChange(Boolean wasPublic, Boolean isPublic, long count) {
+        if (Objects.equals(wasPublic, isPublic) || count == 0) {
+            return;
+        }
+        increment(StatisticDimension.VISIBILITY, visibilityKey(wasPublic), -count);
+        increment(StatisticDimension.VISIBILITY, visibilityKey(isPublic), count);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Article article) {
+        increment(StatisticDimension.AUTHOR, String.valueOf(article.getAuthorId()), -1);
+        increment(StatisticDimension.VISIBILITY, visibilityKey(article.getIsPublic()), -1);
+        increment(StatisticDimension.CREATED_DAY, dayKey(article), -1);
+    }
+    
+    /**
+     * Bulk variant for set-based deletes: deltas are summed per counter first, so each counter
+     * is updated once however many articles were removed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Collection<ArticleSummary> articles) {
+        Map<StatisticDimension, Map<String, Long>> deltas = new EnumMap<>(StatisticDimension.class);
+        for (ArticleSummary article : articles) {
+            deltas.computeIfAbsent(StatisticDimension.AUTHOR, d -> new HashMap<>())
+                    .merge(String.valueOf(article.getAuthorId()), -1L, Long::sum);
+            deltas.computeIfAbsent(StatisticDimension.VISIBILITY, d -> new HashMap<>())
+                    .merge(visibilityKey(article.getIsPublic()), -1L, Long::sum);
+            deltas.computeIfAbsent(StatisticDimension.CREATED_DAY, d -> new HashMap<>())
+                    .merge(dayKey(article.getCreatedAt()), -1L, Long::sum);
+        }
+        deltas.forEach((dimension, counters) -> counters.forEach((key, delta) -> increment(dimension, key, delta)));
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReassigned(Collection<ArticleSummary> articles, Long newAuthorId) {
+        Map<String, Long> deltas = new HashMap<>();
+        for (ArticleSummary article : articles) {
+            deltas.merge(String.valueOf(article.getAuthorId()), -1L, Long::sum);
+        }
+        deltas.merge(String.valueOf(newAuthorId), (long) articles.size(), Long::sum);
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                increment(StatisticDimension.AUTHOR, key, delta);
+            }
+        });
+    }
+    
+    @Transactional(readOnly = true)
+    public ArticleStatisticsResponse getStatistics(int days) {
+        long publicCount = 0;
+        long privateCount = 0;
+        for (ArticleStatistic stat : statisticRepository.findByDimension(StatisticDimension.VISIBILITY)) {
+            if (PUBLIC.equals(stat.getStatKey())) {
+                publicCount = stat.getArticleCount();
+            } else if (PRIVATE.equals(stat.getStatKey())) {
+                privateCount = stat.getArticleCount();
+            }
+        }
+        
+        Map<Long, Long> perAuthor = new TreeMap<>();
+        for (ArticleStatistic stat : statisticRepository.findByDimension(StatisticDimension.AUTHOR)) {
+            if (stat.getArticleCount() > 0) {
+                perAuthor.put(Long.valueOf(stat.getStatKey()), stat.getArticleCount());
+            }
+        }
+        
+        // ISO dates sort lexicographically, so the key range filter is a date range filter
+        String fromDay = LocalDate.now().minusDays(Math.max(0, days - 1)).toString();
+        Map<String, Long> perDay = new TreeMap<>();
+        for (ArticleStatistic stat : statisticRepository.findByDimensionFromKey(StatisticDimension.CREATED_DAY, fromDay)) {
+            if (stat.getArticleCount() > 0) {
+                perDay.put(stat.getStatKey(), stat.getArticleCount());
+            }
+        }
+        
+        return ArticleStatisticsResponse.builder()
+                .totalArticles(publicCount + privateCount)
+                .publicArticles(publicCount)
+                .privateArticles(privateCount)
+                .articlesPerAuthor(perAuthor)
+                .articlesCreatedPerDay(perDay)
+                .build();
+    }
+    
+    @Scheduled(cron = "${article-stats.reconcile-cron:0 15 * * * *}")
+    public void scheduledReconcile() {
+        String lease = leaseService.tryAcquire(RECONCILE_LEASE, leaseTtl);
+        if (lease == null) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("Article statistics reconciliation failed: {}", e.getMessage(), e);
+        } finally {
+            leaseService.release(RECONCILE_LEASE, lease);
+        }
+    }
+    
+    /**
+     * Recomputes every counter from the articles table and repairs the ones that drifted.
+     * <p>
+     * The comparison runs without locks, so it may flag counters that only look wrong because
+     * a write was in flight. Each flagged counter is then re-counted in its own short
+     * transaction under a lock on that one row and corrected by the difference, so writers
+     * never wait for more than a single count and no concurrent update is lost.
+     *
+     * @return the number of counters that were corrected
+     */
+    public int reconcile() {
+        Map<StatisticDimension, Map<String, Long>> expected = new EnumMap<>(StatisticDimension.class);
+        for (StatisticDimension dimension : StatisticDimension.values()) {
+            expected.put(dimension, new HashMap<>());
+        }
+        for (Object[] row : articleRepository.countGroupedByAuthor()) {
+            expected.get(StatisticDimension.AUTHOR).merge(String.valueOf(row[0]), ((Number) row[1]).longValue(), Long::sum);
+        }
+        for (Object[] row : articleRepository.countGroupedByVisibility()) {
+            expected.get(StatisticDimension.VISIBILITY).merge(visibilityKey((Boolean) row[0]), ((Number) row[1]).longValue(), Long::sum);
+        }
+        for (Object[] row : articleRepository.countGroupedByCreatedDay()) {
+            expected.get(StatisticDimension.CREATED_DAY).merge(String.valueOf(row[0]), ((Number) row[1]).longValue(), Long::sum);
+        }
+        
+        List<ArticleStatistic> suspects = new ArrayList<>();
+        for (ArticleStatistic stat : statisticRepository.findAll()) {
+            Long actual = expected.get(stat.getDimension()).remove(stat.getStatKey());
+            if (stat.getArticleCount() != (actual == null ? 0L : actual)) {
+                suspects.add(stat);
+            }
+        }
+        for (Map.Entry<StatisticDimension, Map<String, Long>> dimension : expected.entrySet()) {
+            for (String missing : dimension.getValue().keySet()) {
+                createCounter(dimension.getKey(), missing);
+                suspects.add(ArticleStatistic.builder().dimension(dimension.getKey()).statKey(missing).build());
+            }
+        }
+        
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        int corrected = 0;
+        for (ArticleStatistic suspect : suspects) {
+            if (Boolean.TRUE.equals(template.execute(status -> correct(suspect.getDimension(), suspect.getStatKey())))) {
+                corrected++;
+            }
+        }
+        
+        if (corrected > 0) {
+            log.warn("Article statistics reconciliation corrected {} counters", corrected);
+        }
+        return corrected;
+    }
+    
+    private boolean correct(StatisticDimension dimension, String key) {
+        ArticleStatistic stat = statisticRepository.findForUpdate(dimension, key).orElse(null);
+        if (stat == null) {
+            return false;
+        }
+        long delta = countArticles(dimension, key) - stat.getArticleCount();
+        if (delta == 0) {
+            return false;
+        }
+        statisticRepository.increment(dimension, key, delta);
+        return true;
+    }
+    
+    private long countArticles(StatisticDimension dimension, String key) {
+        return switch (dimension) {
+            case AUTHOR -> articleRepository.countByAuthorId(Long.valueOf(key));
+            case VISIBILITY -> articleRepository.countByIsPublic(PUBLIC.equals(key));
+            case CREATED_DAY -> {
+                LocalDate day = LocalDate.parse(key);
+                yield articleRepository.countCreatedBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            }
+        };
+    }
+    
+    private void increment(StatisticDimension dimension, String key, long delta) {
+        if (statisticRepository.increment(dimension, key, delta) == 0) {
+            createCounter(dimension, key);
+            statisticRepository.increment(dimension, key, delta);
+        }
+    }
+    
+    /**
+     * Creates a zero counter in its own transaction; losing the race to another writer is fine
+     * because either way the row exists afterwards.
+     */
+    private void createCounter(StatisticDimension dimension, String key) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            template.executeWithoutResult(status -> statisticRepository.saveAndFlush(ArticleStatistic.builder()
+                    .dimension(dimension)
+                    .statKey(key)
+                    .articleCount(0L)
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently
+        }
+    }
+    
+    private String visibilityKey(Boolean isPublic) {
+        return Boolean.TRUE.equals(isPublic) ? PUBLIC : PRIVATE;
+    }
+    
+    private String dayKey(Article article) {
+        return dayKey(article.getCreatedAt());
+    }
+    
+    private String dayKey(LocalDateTime createdAt) {
+        return createdAt != null ? createdAt.toLocalDate().toString() : LocalDate.now().toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.library.service;
+
+import com.library.domain.entity.AttachmentBlob;
+import com.library.repository.ArticleAttachmentRepository;
+import com.library.repository.AttachmentBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Keeps blob files in step with the attachments that reference them. Adding a reference and
+ * dropping the last one both lock the blob's {@code attachment_blobs} row, so an upload that
+ * reuses a blob never interleaves with a delete that removes it.
+ * <p>
+ * An unreferenced blob is moved out of its content address under the lock and only deleted
+ * once the transaction commits; on rollback it is put back.
+ */
+@Service
+public class AttachmentBlobService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AttachmentBlobService.class);
+    
+    private static final int MAX_LOCK_ATTEMPTS = 3;
+    
+    @Autowired
+    private AttachmentBlobRepository blobRepository;
+    
+    @Autowired
+    private ArticleAttachmentRepository attachmentRepository;
+    
+    @Autowired
+    private AttachmentStorageService storageService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    /**
+     * Locks the blob and moves the stored upload into place. Call in the transaction that saves
+     * the attachment row; a rolled-back upload leaves an unreferenced blob that the next
+     * identical upload reuses.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void acquire(AttachmentStorageService.StoredBlob blob) {
+        lock(blob.getSha256());
+        try {
+            storageService.commit(blob);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store attachment blob " + blob.getSha256(), e);
+        }
+    }
+    
+    /**
+     * Removes the blobs no attachment references any more. Call in the transaction that deleted
+     * the attachment rows, after deleting them.
+     *
+     * @return the number of blobs removed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int releaseUnreferenced(Collection<String> sha256s) {
+        int released = 0;
+        // Locked in a fixed order so two bulk releases cannot deadlock
+        for (String sha256 : new TreeSet<>(sha256s)) {
+            AttachmentBlob blob = lock(sha256);
+            if (attachmentRepository.countBySha256(sha256) > 0) {
+                continue;
+            }
+            blobRepository.delete(blob);
+            Path detached;
+            try {
+                detached = storageService.detach(sha256);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to remove attachment blob " + sha256, e);
+            }
+            if (detached != null) {
+                deleteAfterCommit(sha256, detached);
+            }
+            released++;
+        }
+        return released;
+    }
+    
+    private AttachmentBlob lock(String sha256) {
+        for (int attempt = 0; attempt < MAX_LOCK_ATTEMPTS; attempt++) {
+            AttachmentBlob blob = blobRepository.findForUpdate(sha256).orElse(null);
+            if (blob != null) {
+                return blob;
+            }
+            createBlob(sha256);
+        }
+        throw new IllegalStateException("Could not lock attachment blob " + sha256);
+    }
+    
+    /**
+     * Creates the blob row in its own transaction, like {@code ArticleStatisticsService} does for
+     * counters; losing the race to another writer is fine because the row exists either way.
+     */
+    private void createBlob(String sha256) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            template.executeWithoutResult(status -> blobRepository.saveAndFlush(
+                    AttachmentBlob.builder().sha256(sha256).build()));
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently
+        }
+    }
+    
+    private void deleteAfterCommit(String sha256, Path detached) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        storageService.deleteDetached(detached);
+                    } else {
+                        storageService.restore(sha256, detached);
+                    }
+                } catch (IOException e) {
+                    log.warn("Failed to finish removing attachment blob {}: {}", sha256, e.getMessage());
+                }
+            }
+        });
+    }
+}
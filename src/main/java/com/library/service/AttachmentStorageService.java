@@ -0,0 +1,219 @@
+package com.library.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Content-addressed blob store on the local file system. Blobs live under
+ * {@code <root>/<aa>/<bb>/<sha256>} so identical uploads share one file.
+ */
+@Service
+public class AttachmentStorageService {
+    
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+    
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    
+    @Value("${attachments.storage-path:./data/attachments}")
+    private String storagePath;
+    
+    @Value("${attachments.max-size-bytes:1073741824}")
+    private long maxSizeBytes;
+    
+    private Path root;
+    private Path tmpDir;
+    
+    @PostConstruct
+    public void init() {
+        try {
+            root = Paths.get(storagePath).toAbsolutePath().normalize();
+            tmpDir = root.resolve("tmp");
+            Files.createDirectories(tmpDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot initialize attachment store at " + storagePath, e);
+        }
+    }
+    
+    /**
+     * Streams the input to a temp file while hashing it. Only one copy buffer is held in memory
+     * regardless of size. The blob is not addressable until {@link #commit} moves it into place;
+     * {@link #discard} drops it otherwise.
+     */
+    public StoredBlob store(InputStream input) throws IOException {
+        MessageDigest digest = newDigest();
+        Path tempFile = Files.createTempFile(tmpDir, "upload-", ".part");
+        long size = 0;
+        
+        try {
+            try (OutputStream out = Files.newOutputStream(tempFile, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSizeBytes) {
+                        throw new IllegalArgumentException(
+                            "Attachment exceeds maximum size of " + maxSizeBytes + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            
+            if (size == 0) {
+                throw new IllegalArgumentException("Attachment is empty");
+            }
+            
+            return new StoredBlob(HexFormat.of().formatHex(digest.digest()), size, tempFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+    
+    /**
+     * Moves a stored upload to its content address, or drops it if identical content is
+     * already there.
+     */
+    public void commit(StoredBlob blob) throws IOException {
+        Path target = resolve(blob.getSha256());
+        if (Files.exists(target)) {
+            Files.deleteIfExists(blob.getTempFile());
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(blob.getTempFile(), target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // A concurrent upload of the same content won the race
+            Files.deleteIfExists(blob.getTempFile());
+        }
+    }
+    
+    /**
+     * Deletes the temp file of an upload that was never committed; a no-op after {@link #commit}.
+     */
+    public void discard(StoredBlob blob) throws IOException {
+        Files.deleteIfExists(blob.getTempFile());
+    }
+    
+    /**
+     * Writes {@code length} bytes starting at {@code start} to the response. Uses
+     * the connector's sendfile support when available, otherwise
+     * {@link FileChannel#transferTo} into the response channel.
+     */
+    public void transfer(String sha256, long start, long length,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path blob = resolve(sha256);
+        
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, blob.toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + length);
+            return;
+        }
+        
+        try (FileChannel channel = FileChannel.open(blob, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+    
+    public boolean exists(String sha256) {
+        return Files.exists(resolve(sha256));
+    }
+    
+    /**
+     * Moves a blob out of its content address so it can no longer be found, without losing it
+     * yet; follow with {@link #deleteDetached} or {@link #restore}.
+     *
+     * @return the detached file, or {@code null} if the blob does not exist
+     */
+    public Path detach(String sha256) throws IOException {
+        Path blob = resolve(sha256);
+        Path detached = tmpDir.resolve(sha256 + "-" + UUID.randomUUID() + ".deleted");
+        try {
+            Files.move(blob, detached, StandardCopyOption.ATOMIC_MOVE);
+            return detached;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+    
+    public void deleteDetached(Path detached) throws IOException {
+        Files.deleteIfExists(detached);
+    }
+    
+    /**
+     * Puts a detached blob back at its content address, unless identical content was stored
+     * there again in the meantime.
+     */
+    public void restore(String sha256, Path detached) throws IOException {
+        Path target = resolve(sha256);
+        try {
+            Files.move(detached, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(detached);
+        }
+    }
+    
+    Path resolve(String sha256) {
+        if (sha256 == null || !sha256.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid content address: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2))
+                .resolve(sha256.substring(2, 4))
+                .resolve(sha256);
+    }
+    
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    public static class StoredBlob {
+        private final String sha256;
+        private final long size;
+        private final Path tempFile;
+    }
+}
@@ -14,6 +14,9 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -27,47 +30,8 @@ public class AuditLogService {
     
     public void log(AuditAction action, String description, Long userId, String username, 
                     String resourceType, Long resourceId, Boolean success, String details) {
-        HttpServletRequest request = getCurrentRequest();
-        
-        if (request == null) {
-            logWithoutRequest(action, description, userId, username, resourceType, resourceId, success, details);
-            return;
-        }
-        
-        String ipAddress = deviceUtil.getClientIp(request);
-        String userAgent = request.getHeader("User-Agent");
-        Map<String, String> deviceInfo = deviceUtil.extractDeviceInfo(request);
-        
-        AuditLog auditLog = AuditLog.builder()
-                .userId(userId)
-                .username(username)
-                .action(action)
-                .description(description)
-                .resourceType(resourceType)
+        AuditLog auditLog = newEntry(action, description, userId, username, resourceType, success, details)
                 .resourceId(resourceId)
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .browser(deviceInfo.get("browser"))
-                .device(deviceInfo.get("device"))
-                .operatingSystem(deviceInfo.get("os"))
-                .success(success)
-                .details(details)
-                .build();
-        
-        auditLogRepository.save(auditLog);
-    }
-    
-    private void logWithoutRequest(AuditAction action, String description, Long userId, String username,
-                                   String resourceType, Long resourceId, Boolean success, String details) {
-        AuditLog auditLog = AuditLog.builder()
-                .userId(userId)
-                .username(username)
-                .action(action)
-                .description(description)
-                .resourceType(resourceType)
-                .resourceId(resourceId)
-                .success(success)
-                .details(details)
                 .build();
         
         auditLogRepository.save(auditLog);
@@ -85,6 +49,21 @@ public class AuditLogService {
         log(action, action.name(), userId, username, "Article", articleId, true, details);
     }
     
+    /**
+     * Writes one entry per article in a single batch, reading the request metadata once.
+     */
+    public void logArticleActions(AuditAction action, Long userId, String username,
+                                  Collection<Long> articleIds, String details) {
+        AuditLog.AuditLogBuilder entry = newEntry(action, action.name(), userId, username, "Article", true, details);
+        
+        List<AuditLog> auditLogs = new ArrayList<>(articleIds.size());
+        for (Long articleId : articleIds) {
+            auditLogs.add(entry.resourceId(articleId).build());
+        }
+        
+        auditLogRepository.saveAll(auditLogs);
+    }
+    
     public void logUserAction(AuditAction action, Long userId, String username, Long targetUserId, String details) {
         log(action, action.name(), userId, username, "User", targetUserId, true, details);
     }
@@ -128,6 +107,32 @@ public class AuditLogService {
                 .build();
     }
     
+    /**
+     * Starts an entry with the client details of the current request, if there is one.
+     */
+    private AuditLog.AuditLogBuilder newEntry(AuditAction action, String description, Long userId, String username,
+                                              String resourceType, Boolean success, String details) {
+        AuditLog.AuditLogBuilder builder = AuditLog.builder()
+                .userId(userId)
+                .username(username)
+                .action(action)
+                .description(description)
+                .resourceType(resourceType)
+                .success(success)
+                .details(details);
+        
+        HttpServletRequest request = getCurrentRequest();
+        if (request != null) {
+            Map<String, String> deviceInfo = deviceUtil.extractDeviceInfo(request);
+            builder.ipAddress(deviceUtil.getClientIp(request))
+                    .userAgent(request.getHeader("User-Agent"))
+                    .browser(deviceInfo.get("browser"))
+                    .device(deviceInfo.get("device"))
+                    .operatingSystem(deviceInfo.get("os"));
+        }
+        return builder;
+    }
+    
     private HttpServletRequest getCurrentRequest() {
         try {
             ServletRequestAttributes attributes = 
@@ -4,29 +4,56 @@ import com.library.domain.entity.User;
 import com.library.domain.enums.AuditAction;
 import com.library.domain.enums.Role;
 import com.library.dto.request.LoginRequest;
+import com.library.dto.request.RefreshTokenRequest;
 import com.library.dto.request.RegisterRequest;
 import com.library.dto.request.VerifyOtpRequest;
 import com.library.dto.response.AuthResponse;
+import com.library.dto.response.AvailabilityResponse;
 import com.library.exception.AccountLockedException;
 import com.library.exception.ResourceNotFoundException;
+import com.library.exception.TooManyLoginAttemptsException;
 import com.library.repository.UserRepository;
+import com.library.security.JwtClaims;
+import com.library.security.UserDetailsCache;
+import com.library.security.VerifiedTokenCache;
+import com.library.util.ClientIpResolver;
 import com.library.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class AuthService {
     
+    private static final String USERNAME_EXISTS = "Username already exists";
+    private static final String EMAIL_EXISTS = "Email already exists";
+    
+    // Named in User's @Table
+    private static final Map<String, String> DUPLICATE_MESSAGES = Map.of(
+            "uk_users_username", USERNAME_EXISTS,
+            "uk_users_username_normalized", USERNAME_EXISTS,
+            "uk_users_email", EMAIL_EXISTS,
+            "uk_users_email_normalized", EMAIL_EXISTS);
+    private static final Pattern REPORTED_CONSTRAINT =
+            Pattern.compile("\"?(?:\\w+\\.)?(\\w+?)(?:_index_\\w+)?(?:\\s.*)?", Pattern.DOTALL);
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -48,25 +75,51 @@ public class AuthService {
     @Autowired
     private EmailService emailService;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker;
+    
+    @Autowired
+    private UserLookupService userLookupService;
+    
+    @Autowired
+    private IdentifierAvailabilityService identifierAvailabilityService;
+    
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+    
     @Value("${security.max-login-attempts:5}")
     private int maxLoginAttempts;
     
-    @Value("${security.login-attempt-window-minutes:10}")
-    private int loginAttemptWindowMinutes;
+    @Value("${security.max-login-attempts-per-ip:50}")
+    private int maxLoginAttemptsPerIp;
     
     @Value("${security.account-lock-duration-minutes:30}")
     private int accountLockDurationMinutes;
     
+    /**
+     * Creates the user. Taken usernames and emails are turned away before the password is hashed,
+     * using the availability filters, which only query the database for possible matches. The
+     * unique constraints on {@code users} still decide races with a concurrent registration.
+     */
     @Transactional
     public AuthResponse register(RegisterRequest request) {
-        // Check if username already exists
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new IllegalArgumentException("Username already exists");
+        if (!identifierAvailabilityService.isUsernameAvailable(request.getUsername())) {
+            throw new IllegalArgumentException(USERNAME_EXISTS);
         }
-        
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new IllegalArgumentException("Email already exists");
+        if (!identifierAvailabilityService.isEmailAvailable(request.getEmail())) {
+            throw new IllegalArgumentException(EMAIL_EXISTS);
         }
         
         // Create new user with VIEWER role by default
@@ -81,7 +134,12 @@ public class AuthService {
                 .failedLoginAttempts(0)
                 .build();
         
-        user = userRepository.save(user);
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException(duplicateIdentifierMessage(e));
+        }
+        identifierAvailabilityService.record(user);
         
         // Send welcome email
         emailService.sendWelcomeEmail(user.getEmail(), user.getUsername());
@@ -93,14 +151,42 @@ public class AuthService {
         // Generate JWT token
         String token = jwtUtil.generateToken(user.getUsername(), createClaims(user));
         
-        return new AuthResponse(token, user.getId(), user.getUsername(), 
-                               user.getEmail(), user.getRole().name());
+        AuthResponse response = new AuthResponse(token, user.getId(), user.getUsername(), 
+                                                 user.getEmail(), user.getRole().name());
+        response.setRefreshToken(refreshTokenService.issue(user.getId()));
+        return response;
     }
     
-    @Transactional
+    /**
+     * Reports whether the given username and email are free. Either may be omitted.
+     */
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        if (username == null && email == null) {
+            throw new IllegalArgumentException("Username or email is required");
+        }
+        AvailabilityResponse response = new AvailabilityResponse();
+        if (username != null) {
+            response.setUsername(username);
+            response.setUsernameAvailable(identifierAvailabilityService.isUsernameAvailable(username));
+        }
+        if (email != null) {
+            response.setEmail(email);
+            response.setEmailAvailable(identifierAvailabilityService.isEmailAvailable(email));
+        }
+        return response;
+    }
+    
+    // A failed attempt that starts a lock must still commit the lock
+    @Transactional(noRollbackFor = BadCredentialsException.class)
     public AuthResponse login(LoginRequest request) {
-        User user = userRepository.findByUsernameOrEmail(request.getUsernameOrEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        String clientIp = currentClientIp();
+        rejectBlockedIp(clientIp);
+        
+        User user = userLookupService.findByIdentifier(request.getUsernameOrEmail())
+                .orElseThrow(() -> {
+                    recordIpFailure(clientIp);
+                    return new ResourceNotFoundException("User not found");
+                });
         
         // Check if account is locked
         if (user.getAccountLocked() && !user.isAccountNonLocked()) {
@@ -123,7 +209,7 @@ public class AuthService {
             );
             
             // Reset failed login attempts on successful authentication
-            resetFailedLoginAttempts(user);
+            loginAttemptTracker.reset(userKey(user));
             
             // Generate and send OTP for MFA
             otpService.generateAndSendOtp(user);
@@ -142,11 +228,11 @@ public class AuthService {
                     .build();
             
         } catch (BadCredentialsException e) {
-            handleFailedLoginAttempt(user);
+            int attempts = handleFailedLoginAttempt(user, clientIp);
             
             auditLogService.logFailure(AuditAction.USER_LOGIN_FAILED, 
                 "Login failed - Invalid credentials", user.getId(), user.getUsername(), 
-                "Attempt " + user.getFailedLoginAttempts() + "/" + maxLoginAttempts);
+                "Attempt " + attempts + "/" + maxLoginAttempts);
             
             throw new BadCredentialsException("Invalid username or password");
         }
@@ -154,7 +240,7 @@ public class AuthService {
     
     @Transactional
     public AuthResponse verifyOtp(VerifyOtpRequest request) {
-        User user = userRepository.findByUsernameOrEmail(request.getUsernameOrEmail())
+        User user = userLookupService.findByIdentifier(request.getUsernameOrEmail())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
         // Verify OTP
@@ -178,54 +264,138 @@ public class AuthService {
         // Generate JWT token
         String token = jwtUtil.generateToken(user.getUsername(), createClaims(user));
         
-        return new AuthResponse(token, user.getId(), user.getUsername(), 
-                               user.getEmail(), user.getRole().name());
+        AuthResponse response = new AuthResponse(token, user.getId(), user.getUsername(), 
+                                                 user.getEmail(), user.getRole().name());
+        response.setRefreshToken(refreshTokenService.issue(user.getId()));
+        return response;
     }
     
-    @Transactional
-    protected void handleFailedLoginAttempt(User user) {
-        int attempts = user.getFailedLoginAttempts() == null ? 0 : user.getFailedLoginAttempts();
-        LocalDateTime now = LocalDateTime.now();
+    /**
+     * Exchanges a refresh token for a new access token and a rotated refresh token. Costs one
+     * Redis script call and a primary-key lookup instead of a password check and an OTP email.
+     */
+    @Transactional(readOnly = true)
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
         
-        // Check if we should reset the counter (outside the time window)
-        if (user.getLastFailedLoginAttempt() != null && 
-            user.getLastFailedLoginAttempt().plusMinutes(loginAttemptWindowMinutes).isBefore(now)) {
-            attempts = 0;
+        User user = userRepository.findById(rotation.getUserId())
+                .orElseThrow(() -> new BadCredentialsException("Invalid or expired refresh token"));
+        if (!user.getEnabled() || !user.isAccountNonLocked()) {
+            refreshTokenService.revoke(rotation.getRefreshToken(), rotation.getUserId());
+            throw new BadCredentialsException("Account is disabled or locked");
         }
         
-        attempts++;
-        user.setFailedLoginAttempts(attempts);
-        user.setLastFailedLoginAttempt(now);
+        String token = jwtUtil.generateToken(user.getUsername(), createClaims(user));
+        
+        AuthResponse response = new AuthResponse(token, user.getId(), user.getUsername(), 
+                                                 user.getEmail(), user.getRole().name());
+        response.setRefreshToken(rotation.getRefreshToken());
+        return response;
+    }
+    
+    /**
+     * Revokes the presented access token for the rest of its lifetime and, if given, the
+     * refresh token family it was issued with; a refresh token of another user is ignored.
+     */
+    public void logout(String token, String refreshToken) {
+        JwtClaims claims;
+        try {
+            claims = jwtUtil.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid or expired token");
+        }
+        
+        tokenRevocationService.revoke(claims);
+        verifiedTokenCache.invalidate(token);
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken, claims.getUserId());
+        }
+        
+        auditLogService.logSuccess(AuditAction.USER_LOGOUT, 
+            "User logged out", claims.getUserId(), claims.getSubject());
+    }
+    
+    /**
+     * Counts the failure in the sliding windows for the user and the client IP. The users row
+     * is only written when the failure starts a lock; the lock ends in
+     * {@link User#isAccountNonLocked()} on the next login after it expires.
+     *
+     * @return the user's failures within the window, including this one
+     */
+    private int handleFailedLoginAttempt(User user, String clientIp) {
+        recordIpFailure(clientIp);
+        int attempts = loginAttemptTracker.recordFailure(userKey(user));
         
         // Lock account if max attempts exceeded
         if (attempts >= maxLoginAttempts) {
+            LocalDateTime now = LocalDateTime.now();
             user.setAccountLocked(true);
             user.setLockedUntil(now.plusMinutes(accountLockDurationMinutes));
+            user.setFailedLoginAttempts(attempts);
+            user.setLastFailedLoginAttempt(now);
+            userRepository.save(user);
+            userDetailsCache.evict(user.getUsername());
+            // Attempts after the lock ends start from zero
+            loginAttemptTracker.reset(userKey(user));
             
             auditLogService.logSuccess(AuditAction.USER_ACCOUNT_LOCKED, 
                 "Account locked due to too many failed login attempts", 
                 user.getId(), user.getUsername());
         }
-        
-        userRepository.save(user);
+        return attempts;
     }
     
-    @Transactional
-    protected void resetFailedLoginAttempts(User user) {
-        if (user.getFailedLoginAttempts() != null && user.getFailedLoginAttempts() > 0) {
-            user.setFailedLoginAttempts(0);
-            user.setLastFailedLoginAttempt(null);
-            user.setAccountLocked(false);
-            user.setLockedUntil(null);
-            userRepository.save(user);
+    private void rejectBlockedIp(String clientIp) {
+        if (clientIp != null && loginAttemptTracker.failures(ipKey(clientIp)) >= maxLoginAttemptsPerIp) {
+            throw new TooManyLoginAttemptsException(
+                "Too many failed login attempts from this address. Please try again later.", 
+                loginAttemptTracker.window());
         }
     }
     
+    private void recordIpFailure(String clientIp) {
+        if (clientIp != null) {
+            loginAttemptTracker.recordFailure(ipKey(clientIp));
+        }
+    }
+    
+    private String currentClientIp() {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        return attributes != null ? clientIpResolver.resolve(attributes.getRequest()) : null;
+    }
+    
+    // Names the column from the violated unique constraint, or both if it cannot be told which
+    private static String duplicateIdentifierMessage(DataIntegrityViolationException e) {
+        if (e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null) {
+            String message = DUPLICATE_MESSAGES.get(constraintName(violation.getConstraintName()));
+            if (message != null) {
+                return message;
+            }
+        }
+        return "Username or email already exists";
+    }
+    
+    // PostgreSQL reports the bare name; H2 reports e.g. "PUBLIC.UK_USERS_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL ...)"
+    static String constraintName(String reported) {
+        Matcher matcher = REPORTED_CONSTRAINT.matcher(reported.toLowerCase(Locale.ROOT));
+        return matcher.matches() ? matcher.group(1) : reported;
+    }
+    
+    private static String userKey(User user) {
+        return "user:" + user.getId();
+    }
+    
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+    
     private Map<String, Object> createClaims(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", user.getId());
         claims.put("email", user.getEmail());
         claims.put("role", user.getRole().name());
+        claims.put("securityVersion", user.getSecurityVersion() == null ? 0L : user.getSecurityVersion());
         return claims;
     }
 }
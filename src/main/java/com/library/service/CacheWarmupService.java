@@ -0,0 +1,148 @@
+package com.library.service;
+
+import com.library.domain.enums.AuditAction;
+import com.library.repository.AuditLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the most viewed articles and the role-wide list partitions before the node
+ * starts accepting traffic. Runs as an {@link ApplicationRunner}, which Spring Boot
+ * completes before publishing the ACCEPTING_TRAFFIC readiness state.
+ */
+@Service
+public class CacheWarmupService implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmupService.class);
+    
+    public enum Status { PENDING, RUNNING, COMPLETED, PARTIAL, FAILED, DISABLED }
+    
+    @Autowired
+    private ArticleService articleService;
+    
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    
+    @Value("${cache.warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${cache.warmup.top-articles:200}")
+    private int topArticles;
+    
+    @Value("${cache.warmup.lookback-days:7}")
+    private int lookbackDays;
+    
+    @Value("${cache.warmup.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${cache.warmup.parallelism:4}")
+    private int parallelism;
+    
+    @Value("${cache.warmup.time-budget:30s}")
+    private Duration timeBudget;
+    
+    private volatile Status status = Status.PENDING;
+    private volatile int warmedArticles;
+    private volatile long durationMs;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            status = Status.DISABLED;
+            return;
+        }
+        warmUp();
+    }
+    
+    public synchronized void warmUp() {
+        status = Status.RUNNING;
+        long started = System.nanoTime();
+        long deadline = started + timeBudget.toNanos();
+        AtomicInteger warmed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        
+        try {
+            List<Long> hottest = auditLogRepository.findMostFrequentResourceIds(
+                AuditAction.ARTICLE_VIEWED,
+                LocalDateTime.now().minusDays(lookbackDays),
+                PageRequest.of(0, topArticles));
+            
+            List<Callable<Void>> tasks = new ArrayList<>();
+            tasks.add(() -> {
+                articleService.preloadArticleLists();
+                return null;
+            });
+            for (int i = 0; i < hottest.size(); i += batchSize) {
+                List<Long> batch = hottest.subList(i, Math.min(i + batchSize, hottest.size()));
+                tasks.add(() -> {
+                    warmed.addAndGet(articleService.preloadArticles(batch));
+                    return null;
+                });
+            }
+            
+            long remaining = deadline - System.nanoTime();
+            List<Future<Void>> results = executor.invokeAll(tasks, Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            
+            boolean complete = true;
+            for (Future<Void> result : results) {
+                if (result.isCancelled()) {
+                    complete = false;
+                    continue;
+                }
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    complete = false;
+                    log.warn("Cache warm-up batch failed: {}", e.getCause().getMessage());
+                }
+            }
+            
+            status = complete ? Status.COMPLETED : Status.PARTIAL;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = Status.PARTIAL;
+        } catch (RuntimeException e) {
+            // Warm-up is best effort; a cold cache must never keep the node out of service
+            log.warn("Cache warm-up failed: {}", e.getMessage());
+            status = Status.FAILED;
+        } finally {
+            executor.shutdownNow();
+            warmedArticles = warmed.get();
+            durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            log.info("Cache warm-up {} in {} ms ({} articles)", status, durationMs, warmedArticles);
+        }
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public Map<String, Object> getDetails() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("status", status);
+        details.put("warmedArticles", warmedArticles);
+        details.put("durationMs", durationMs);
+        details.put("timeBudgetMs", timeBudget.toMillis());
+        return details;
+    }
+}
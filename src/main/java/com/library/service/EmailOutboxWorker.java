@@ -0,0 +1,299 @@
+package com.library.service;
+
+import com.library.domain.entity.OutboxEmail;
+import com.library.repository.OutboxEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the email outbox. A drain runs right after a transaction that queued mail commits,
+ * and on a fixed poll for retries and for mail queued on other nodes. Each drain holds a
+ * cluster-wide lease, reads due emails in batches and sends a batch in parallel on a small
+ * worker pool over pooled SMTP sessions, so SMTP latency never reaches the request that queued
+ * the email.
+ * <p>
+ * A failed send is retried with exponential backoff up to {@code email-outbox.max-attempts}, and
+ * so is a send still running after {@code email-outbox.send-timeout}. Delivery is at-least-once:
+ * such a send may still complete, and if a lease expires mid-batch, another node may send the
+ * same email again.
+ */
+@Service
+public class EmailOutboxWorker {
+    
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxWorker.class);
+    
+    private static final String LEASE_NAME = "email-outbox";
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+    
+    @Autowired
+    private SmtpTransportPool smtpTransportPool;
+    
+    @Autowired
+    private LeaseService leaseService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+    
+    @Value("${email-outbox.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${email-outbox.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${email-outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+    
+    @Value("${email-outbox.workers:4}")
+    private int workers;
+    
+    @Value("${email-outbox.max-attempts:8}")
+    private int maxAttempts;
+    
+    @Value("${email-outbox.initial-backoff:30s}")
+    private Duration initialBackoff;
+    
+    @Value("${email-outbox.max-backoff:1h}")
+    private Duration maxBackoff;
+    
+    @Value("${email-outbox.lease-ttl:2m}")
+    private Duration leaseTtl;
+    
+    @Value("${email-outbox.send-timeout:30s}")
+    private Duration sendTimeout;
+    
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    
+    // One trigger thread, so drains on this node never overlap
+    private ExecutorService trigger;
+    private ExecutorService senders;
+    
+    private Counter sent;
+    private Counter retried;
+    private Counter failed;
+    private Timer lag;
+    
+    @PostConstruct
+    public void start() {
+        trigger = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "email-outbox-trigger"));
+        AtomicInteger senderCount = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(workers,
+                runnable -> daemon(runnable, "email-outbox-" + senderCount.incrementAndGet()));
+        
+        sent = Counter.builder("email.outbox.sent")
+                .description("Outbox emails delivered")
+                .register(meterRegistry);
+        retried = Counter.builder("email.outbox.retried")
+                .description("Outbox deliveries that failed and were rescheduled")
+                .register(meterRegistry);
+        failed = Counter.builder("email.outbox.failed")
+                .description("Outbox emails given up on after the last attempt or after expiring")
+                .register(meterRegistry);
+        lag = Timer.builder("email.outbox.lag")
+                .description("Time from queueing an email to delivering it")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        trigger.shutdownNow();
+        senders.shutdownNow();
+    }
+    
+    @Scheduled(fixedDelayString = "${email-outbox.poll-interval:5000}",
+               initialDelayString = "${email-outbox.poll-interval:5000}")
+    public void poll() {
+        wakeUp();
+    }
+    
+    /**
+     * Requests a drain on the trigger thread. At most one drain is queued behind a running one,
+     * which picks up everything queued in the meantime.
+     */
+    public void wakeUp() {
+        if (!enabled || drainRequested.getAndSet(true)) {
+            return;
+        }
+        trigger.execute(() -> {
+            drainRequested.set(false);
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                log.error("Email outbox drain failed: {}", e.getMessage(), e);
+            }
+        });
+    }
+    
+    /**
+     * @return the number of emails delivered in this run
+     */
+    public int drain() {
+        String lease = leaseService.tryAcquire(LEASE_NAME, leaseTtl);
+        if (lease == null) {
+            return 0;
+        }
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            int delivered = 0;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                LocalDateTime now = LocalDateTime.now();
+                List<OutboxEmail> due = template.execute(status -> outboxEmailRepository.findDue(now, batchSize));
+                if (due == null || due.isEmpty()) {
+                    break;
+                }
+                delivered += deliverBatch(due, template);
+                if (due.size() < batchSize) {
+                    break;
+                }
+            }
+            return delivered;
+        } finally {
+            leaseService.release(LEASE_NAME, lease);
+        }
+    }
+    
+    private int deliverBatch(List<OutboxEmail> batch, TransactionTemplate template) {
+        LocalDateTime now = LocalDateTime.now();
+        List<CompletableFuture<RuntimeException>> results = new ArrayList<>(batch.size());
+        for (OutboxEmail email : batch) {
+            if (email.isExpired(now)) {
+                results.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            results.add(CompletableFuture.supplyAsync(() -> send(email), senders));
+        }
+        
+        // The sends run in parallel, so they share one deadline
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Long> sentIds = new ArrayList<>();
+        List<OutboxEmail> unsent = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEmail email = batch.get(i);
+            if (email.isExpired(now)) {
+                email.markFailed();
+                email.setLastError("Expired before delivery");
+                failed.increment();
+                unsent.add(email);
+                continue;
+            }
+            RuntimeException error = await(results.get(i), deadline);
+            if (error == null) {
+                sentIds.add(email.getId());
+                lag.record(Duration.between(email.getCreatedAt(), LocalDateTime.now()));
+            } else {
+                scheduleRetry(email, error, now);
+                unsent.add(email);
+            }
+        }
+        
+        LocalDateTime sentAt = LocalDateTime.now();
+        template.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxEmailRepository.markSent(sentIds, sentAt);
+            }
+            if (!unsent.isEmpty()) {
+                outboxEmailRepository.saveAll(unsent);
+            }
+        });
+        sent.increment(sentIds.size());
+        return sentIds.size();
+    }
+    
+    private RuntimeException send(OutboxEmail email) {
+        try {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(fromEmail);
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            smtpTransportPool.send(message);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+    
+    private RuntimeException await(CompletableFuture<RuntimeException> result, long deadline) {
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return new MailSendException("Send did not complete within " + sendTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new MailSendException("Interrupted while waiting for the send");
+        } catch (ExecutionException e) {
+            return new MailSendException("Send failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+    
+    private void scheduleRetry(OutboxEmail email, RuntimeException error, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(truncate(error.getMessage()));
+        if (attempts >= maxAttempts) {
+            email.markFailed();
+            failed.increment();
+            log.warn("Giving up on outbox email {} after {} attempts: {}", email.getId(), attempts, error.getMessage());
+        } else {
+            email.setNextAttemptAt(now.plus(backoff(attempts)));
+            retried.increment();
+            log.debug("Outbox email {} failed (attempt {}), retrying: {}", email.getId(), attempts, error.getMessage());
+        }
+    }
+    
+    // initial-backoff doubled after each failed attempt, capped at max-backoff
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff;
+        for (int i = 1; i < attempts && delay.compareTo(maxBackoff) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(maxBackoff) < 0 ? delay : maxBackoff;
+    }
+    
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+    
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -1,32 +1,36 @@
 package com.library.service;
 
+import com.library.domain.entity.OutboxEmail;
+import com.library.repository.OutboxEmailRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+
+/**
+ * Queues emails in the outbox as part of the caller's transaction; {@link EmailOutboxWorker}
+ * delivers them once the transaction commits.
+ */
 @Service
 public class EmailService {
     
     @Autowired
-    private JavaMailSender mailSender;
+    private OutboxEmailRepository outboxEmailRepository;
+    
+    @Autowired
+    private EmailOutboxWorker emailOutboxWorker;
     
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    @Value("${security.otp-expiration-minutes:5}")
+    private int otpExpirationMinutes;
     
     public void sendOtpEmail(String toEmail, String otpCode, String username) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Your Login OTP Code");
-            message.setText(buildOtpEmailContent(username, otpCode));
-            
-            mailSender.send(message);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to send OTP email: " + e.getMessage());
-        }
+        // An OTP email that arrives after the code expired is useless, so stop retrying then
+        enqueue(toEmail, "Your Login OTP Code", buildOtpEmailContent(username, otpCode),
+                LocalDateTime.now().plusMinutes(otpExpirationMinutes), true);
     }
     
     private String buildOtpEmailContent(String username, String otpCode) {
@@ -42,18 +46,7 @@ public class EmailService {
     }
     
     public void sendWelcomeEmail(String toEmail, String username) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Welcome to Library Management System");
-            message.setText(buildWelcomeEmailContent(username));
-            
-            mailSender.send(message);
-        } catch (Exception e) {
-            // Log error but don't fail registration
-            System.err.println("Failed to send welcome email: " + e.getMessage());
-        }
+        enqueue(toEmail, "Welcome to Library Management System", buildWelcomeEmailContent(username), null);
     }
     
     private String buildWelcomeEmailContent(String username) {
@@ -66,5 +59,35 @@ public class EmailService {
             username
         );
     }
+    
+    @Transactional
+    public void enqueue(String toEmail, String subject, String body, LocalDateTime expiresAt) {
+        enqueue(toEmail, subject, body, expiresAt, false);
+    }
+    
+    /**
+     * @param sensitive whether the body holds a secret that must not outlive delivery, such as an OTP
+     */
+    @Transactional
+    public void enqueue(String toEmail, String subject, String body, LocalDateTime expiresAt, boolean sensitive) {
+        outboxEmailRepository.save(OutboxEmail.builder()
+                .recipient(toEmail)
+                .subject(subject)
+                .body(body)
+                .sensitive(sensitive)
+                .expiresAt(expiresAt)
+                .build());
+        
+        // Deliver as soon as the email is visible to the worker instead of waiting for the next poll
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emailOutboxWorker.wakeUp();
+                }
+            });
+        } else {
+            emailOutboxWorker.wakeUp();
+        }
+    }
 }
-
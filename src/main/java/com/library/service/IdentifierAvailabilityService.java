@@ -0,0 +1,131 @@
+package com.library.service;
+
+import com.library.domain.entity.User;
+import com.library.repository.UserRepository;
+import com.library.util.BloomFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Answers whether a username or email is still free for sign-up. Every node keeps Bloom filters
+ * of the normalized usernames and emails in use, so an identifier the filter has never seen is
+ * reported available without a query; only possible matches are checked against the database.
+ * <p>
+ * The filters are built at startup and updated as this node registers or renames users. They
+ * are rebuilt periodically to drop deleted and renamed identifiers (Bloom filters cannot remove
+ * values) and to pick up users created on other nodes. The answer is advisory: registration
+ * relies on the unique constraints on {@code users}.
+ */
+@Service
+public class IdentifierAvailabilityService implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(IdentifierAvailabilityService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${user-availability.expected-identifiers:1000000}")
+    private long expectedIdentifiers;
+    
+    @Value("${user-availability.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+    
+    @Value("${user-availability.rebuild-batch-size:5000}")
+    private int rebuildBatchSize;
+    
+    private volatile BloomFilter usernames;
+    private volatile BloomFilter emails;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+    
+    public boolean isUsernameAvailable(String username) {
+        return isAvailable("username", usernames, User.normalizeIdentifier(username));
+    }
+    
+    public boolean isEmailAvailable(String email) {
+        return isAvailable("email", emails, User.normalizeIdentifier(email));
+    }
+    
+    /**
+     * Marks the user's identifiers as taken on this node. Call after a user is created or renamed.
+     */
+    public void record(User user) {
+        BloomFilter currentUsernames = usernames;
+        BloomFilter currentEmails = emails;
+        if (currentUsernames == null || currentEmails == null) {
+            return;
+        }
+        if (user.getUsername() != null) {
+            currentUsernames.put(User.normalizeIdentifier(user.getUsername()));
+        }
+        if (user.getEmail() != null) {
+            currentEmails.put(User.normalizeIdentifier(user.getEmail()));
+        }
+    }
+    
+    /**
+     * Replaces both filters with ones built from the users table, read in id order in batches.
+     */
+    @Scheduled(fixedDelayString = "${user-availability.rebuild-interval:600000}",
+               initialDelayString = "${user-availability.rebuild-interval:600000}")
+    public void rebuild() {
+        try {
+            BloomFilter rebuiltUsernames = new BloomFilter(expectedIdentifiers, falsePositiveProbability);
+            BloomFilter rebuiltEmails = new BloomFilter(expectedIdentifiers, falsePositiveProbability);
+            long afterId = 0;
+            long count = 0;
+            List<Object[]> batch;
+            do {
+                batch = userRepository.findIdentifiersAfter(afterId, PageRequest.of(0, rebuildBatchSize));
+                for (Object[] row : batch) {
+                    afterId = (Long) row[0];
+                    rebuiltUsernames.put(User.normalizeIdentifier((String) row[1]));
+                    rebuiltEmails.put(User.normalizeIdentifier((String) row[2]));
+                }
+                count += batch.size();
+            } while (batch.size() == rebuildBatchSize);
+            
+            // Users registered on this node while the table was read are already in the old filters
+            // and may be missing from the snapshot; the next rebuild picks them up
+            usernames = rebuiltUsernames;
+            emails = rebuiltEmails;
+            if (count > expectedIdentifiers) {
+                log.warn("{} users exceed user-availability.expected-identifiers ({}); availability checks "
+                        + "will hit the database more often", count, expectedIdentifiers);
+            }
+            log.debug("Rebuilt availability filters from {} users", count);
+        } catch (RuntimeException e) {
+            log.warn("Availability filter rebuild skipped: {}", e.getMessage());
+        }
+    }
+    
+    private boolean isAvailable(String field, BloomFilter filter, String normalized) {
+        if (normalized == null || normalized.isEmpty()) {
+            return false;
+        }
+        if (filter != null && !filter.mightContain(normalized)) {
+            meterRegistry.counter("user.availability.checks", "field", field, "source", "filter").increment();
+            return true;
+        }
+        meterRegistry.counter("user.availability.checks", "field", field, "source", "database").increment();
+        return "email".equals(field)
+                ? !userRepository.existsByEmailNormalized(normalized)
+                : !userRepository.existsByUsernameNormalized(normalized);
+    }
+}
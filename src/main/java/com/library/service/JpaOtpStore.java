@@ -0,0 +1,68 @@
+package com.library.service;
+
+import com.library.domain.entity.OtpToken;
+import com.library.repository.OtpTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps codes in the {@code otp_tokens} table, for deployments without Redis. The code row is
+ * locked while it is checked so concurrent verifications cannot both consume it.
+ */
+@Component
+@ConditionalOnProperty(name = "security.otp-store", havingValue = "jpa")
+public class JpaOtpStore implements OtpStore {
+    
+    @Autowired
+    private OtpTokenRepository otpTokenRepository;
+    
+    @Override
+    @Transactional
+    public void save(Long userId, String otpCode, Duration ttl) {
+        otpTokenRepository.deleteByUserId(userId);
+        otpTokenRepository.save(OtpToken.builder()
+                .userId(userId)
+                .otpCode(otpCode)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .used(false)
+                .build());
+    }
+    
+    @Override
+    @Transactional
+    public boolean verifyAndConsume(Long userId, String otpCode, int maxAttempts) {
+        OtpToken otpToken = otpTokenRepository
+                .findFirstByUserIdAndUsedFalseAndExpiresAtAfterOrderByCreatedAtDesc(userId, LocalDateTime.now())
+                .orElse(null);
+        if (otpToken == null) {
+            return false;
+        }
+        
+        boolean matched = otpToken.getOtpCode().equals(otpCode);
+        if (matched) {
+            otpToken.setUsed(true);
+        } else {
+            otpToken.setAttempts(otpToken.getAttempts() + 1);
+            // Too many wrong guesses burn the code
+            if (otpToken.getAttempts() >= maxAttempts) {
+                otpToken.setUsed(true);
+            }
+        }
+        otpTokenRepository.save(otpToken);
+        return matched;
+    }
+    
+    @Override
+    @Transactional
+    public int purgeExpired(int limit) {
+        List<Long> ids = otpTokenRepository.findPurgeableIds(LocalDateTime.now(), PageRequest.of(0, limit));
+        return ids.isEmpty() ? 0 : otpTokenRepository.deleteByIds(ids);
+    }
+}
@@ -0,0 +1,101 @@
+package com.library.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cluster-wide leases for background jobs that should run on one node at a time, backed by
+ * Redis {@code SET NX PX}. A lease expires on its own if the holder dies, so guarded work
+ * must fit comfortably within the TTL.
+ * <p>
+ * When Redis is unreachable the lease falls back to a per-node lease (unless disabled), so
+ * jobs keep running; anything guarded by a lease must therefore be safe to run twice.
+ */
+@Service
+public class LeaseService {
+    
+    private static final Logger log = LoggerFactory.getLogger(LeaseService.class);
+    
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>();
+    
+    static {
+        RELEASE_SCRIPT.setLocation(new ClassPathResource("redis/release-lease.lua"));
+        RELEASE_SCRIPT.setResultType(Long.class);
+    }
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Value("${lease.key-prefix:lease:}")
+    private String keyPrefix;
+    
+    @Value("${lease.local-fallback:true}")
+    private boolean localFallback;
+    
+    private final Map<String, LocalLease> localLeases = new ConcurrentHashMap<>();
+    
+    /**
+     * @return a token to pass to {@link #release}, or {@code null} if another holder has the lease
+     */
+    public String tryAcquire(String name, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(keyPrefix + name, token, ttl);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (RuntimeException e) {
+            if (!localFallback) {
+                log.warn("Lease {} unavailable, Redis error: {}", name, e.getMessage());
+                return null;
+            }
+            log.warn("Lease {} falling back to a local lease, Redis error: {}", name, e.getMessage());
+            return tryAcquireLocal(name, token, ttl);
+        }
+    }
+    
+    public void release(String name, String token) {
+        if (token == null) {
+            return;
+        }
+        LocalLease local = localLeases.get(name);
+        if (local != null && local.token.equals(token)) {
+            localLeases.remove(name, local);
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(keyPrefix + name), token);
+        } catch (RuntimeException e) {
+            // The lease expires on its own
+            log.warn("Failed to release lease {}: {}", name, e.getMessage());
+        }
+    }
+    
+    private String tryAcquireLocal(String name, String token, Duration ttl) {
+        long now = System.currentTimeMillis();
+        LocalLease lease = new LocalLease(token, now + ttl.toMillis());
+        LocalLease winner = localLeases.compute(name,
+                (key, current) -> current == null || current.expiresAt <= now ? lease : current);
+        return winner == lease ? token : null;
+    }
+    
+    private static final class LocalLease {
+        private final String token;
+        private final long expiresAt;
+        
+        private LocalLease(String token, long expiresAt) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.library.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.UUID;
+
+/**
+ * Sliding-window counters of failed logins, keyed per user and per client IP, so failed logins
+ * no longer write to the {@code users} row.
+ * <p>
+ * With {@code security.login-attempts.store: redis} the windows are sorted sets shared by all
+ * nodes, written and counted by scripts on the Redis server's clock; with {@code memory} they
+ * are kept per node. When Redis is unreachable the tracker
+ * falls back to the per-node windows, so lockout keeps working during an outage.
+ */
+@Service
+public class LoginAttemptTracker {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoginAttemptTracker.class);
+    
+    private static final DefaultRedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>();
+    private static final DefaultRedisScript<Long> COUNT_SCRIPT = new DefaultRedisScript<>();
+    
+    static {
+        RECORD_SCRIPT.setLocation(new ClassPathResource("redis/record-login-failure.lua"));
+        RECORD_SCRIPT.setResultType(Long.class);
+        COUNT_SCRIPT.setLocation(new ClassPathResource("redis/count-login-failures.lua"));
+        COUNT_SCRIPT.setResultType(Long.class);
+    }
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Value("${security.login-attempts.store:redis}")
+    private String store;
+    
+    @Value("${security.login-attempts.key-prefix:login-failures:}")
+    private String keyPrefix;
+    
+    @Value("${security.login-attempts.max-keys:100000}")
+    private int maxKeys;
+    
+    @Value("${security.login-attempt-window-minutes:10}")
+    private int windowMinutes;
+    
+    @Value("${security.max-login-attempts:5}")
+    private int maxLoginAttempts;
+    
+    @Value("${security.max-login-attempts-per-ip:50}")
+    private int maxLoginAttemptsPerIp;
+    
+    private Cache<String, SlidingWindow> localWindows;
+    private int maxTracked;
+    
+    @PostConstruct
+    public void init() {
+        // Enough to decide every threshold; older failures in the window are dropped
+        maxTracked = Math.max(maxLoginAttempts, maxLoginAttemptsPerIp);
+        localWindows = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(window())
+                .build();
+    }
+    
+    /**
+     * @return the failures for the key within the window, including this one
+     */
+    public int recordFailure(String key) {
+        if (useRedis()) {
+            try {
+                Long count = redisTemplate.execute(RECORD_SCRIPT, Collections.singletonList(keyPrefix + key),
+                        String.valueOf(window().toMillis()), String.valueOf(maxTracked), UUID.randomUUID().toString());
+                return count == null ? 0 : count.intValue();
+            } catch (RuntimeException e) {
+                log.warn("Recording login failure locally, Redis error: {}", e.getMessage());
+            }
+        }
+        return localWindows.get(key, k -> new SlidingWindow())
+                .record(System.currentTimeMillis(), window().toMillis(), maxTracked);
+    }
+    
+    public int failures(String key) {
+        if (useRedis()) {
+            try {
+                Long count = redisTemplate.execute(COUNT_SCRIPT, Collections.singletonList(keyPrefix + key),
+                        String.valueOf(window().toMillis()));
+                return count == null ? 0 : count.intValue();
+            } catch (RuntimeException e) {
+                log.warn("Reading login failures locally, Redis error: {}", e.getMessage());
+            }
+        }
+        SlidingWindow local = localWindows.getIfPresent(key);
+        return local == null ? 0 : local.count(System.currentTimeMillis(), window().toMillis());
+    }
+    
+    public void reset(String key) {
+        localWindows.invalidate(key);
+        if (useRedis()) {
+            try {
+                redisTemplate.delete(keyPrefix + key);
+            } catch (RuntimeException e) {
+                log.warn("Failed to reset login failures, Redis error: {}", e.getMessage());
+            }
+        }
+    }
+    
+    public Duration window() {
+        return Duration.ofMinutes(windowMinutes);
+    }
+    
+    private boolean useRedis() {
+        return "redis".equalsIgnoreCase(store);
+    }
+    
+    private static final class SlidingWindow {
+        private final Deque<Long> failures = new ArrayDeque<>();
+        
+        private synchronized int record(long now, long windowMillis, int maxTracked) {
+            evict(now, windowMillis);
+            failures.addLast(now);
+            while (failures.size() > maxTracked) {
+                failures.removeFirst();
+            }
+            return failures.size();
+        }
+        
+        private synchronized int count(long now, long windowMillis) {
+            evict(now, windowMillis);
+            return failures.size();
+        }
+        
+        private void evict(long now, long windowMillis) {
+            while (!failures.isEmpty() && failures.peekFirst() <= now - windowMillis) {
+                failures.removeFirst();
+            }
+        }
+    }
+}
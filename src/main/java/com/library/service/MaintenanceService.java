@@ -0,0 +1,183 @@
+package com.library.service;
+
+import com.library.repository.AuditLogRepository;
+import com.library.repository.OutboxEmailRepository;
+import com.library.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Background housekeeping: expired and used OTP codes, account locks that have run out, audit
+ * logs past retention and delivered outbox emails.
+ * <p>
+ * Each job holds its own cluster-wide lease, so one node runs it at a time, and works like
+ * {@link ArticlePurgeService}: chunks of {@code maintenance.chunk-size} rows in short
+ * transactions with a pause in between. The frequent jobs stop after
+ * {@code max-chunks-per-run} chunks and continue on their next run; the daily retention jobs go
+ * on until their backlog is gone or their lease is nearly used up, so a backlog larger than one
+ * run still drains. Rows affected and run time are published as {@code maintenance.rows} and
+ * {@code maintenance.duration}, tagged by job.
+ */
+@Service
+public class MaintenanceService {
+    
+    private static final Logger log = LoggerFactory.getLogger(MaintenanceService.class);
+    
+    static final String OTP_CLEANUP = "otp-cleanup";
+    static final String LOCK_EXPIRY = "lock-expiry";
+    static final String AUDIT_RETENTION = "audit-retention";
+    static final String OUTBOX_RETENTION = "outbox-retention";
+    
+    @Autowired
+    private OtpService otpService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+    
+    @Autowired
+    private LeaseService leaseService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${maintenance.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${maintenance.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${maintenance.max-chunks-per-run:50}")
+    private int maxChunksPerRun;
+    
+    @Value("${maintenance.pause-between-chunks:100ms}")
+    private Duration pauseBetweenChunks;
+    
+    @Value("${maintenance.lease-ttl:10m}")
+    private Duration leaseTtl;
+    
+    @Value("${maintenance.audit-retention:365d}")
+    private Duration auditRetention;
+    
+    @Value("${maintenance.outbox-retention:7d}")
+    private Duration outboxRetention;
+    
+    @Scheduled(fixedDelayString = "${maintenance.otp-cleanup-interval:300000}",
+               initialDelayString = "${maintenance.otp-cleanup-interval:300000}")
+    public void cleanupOtps() {
+        runJob(OTP_CLEANUP, () -> otpService.cleanupExpiredOtps(chunkSize));
+    }
+    
+    /**
+     * Clears locks whose time is up, so the {@code users} table reflects who is actually locked
+     * instead of relying on the next login attempt to notice.
+     */
+    @Scheduled(fixedDelayString = "${maintenance.lock-expiry-interval:60000}",
+               initialDelayString = "${maintenance.lock-expiry-interval:60000}")
+    public void expireLocks() {
+        runJob(LOCK_EXPIRY, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = userRepository.findExpiredLockIds(now, PageRequest.of(0, chunkSize));
+            return ids.isEmpty() ? 0 : userRepository.unlockExpired(ids, now);
+        });
+    }
+    
+    @Scheduled(cron = "${maintenance.audit-retention-cron:0 30 3 * * *}")
+    public void purgeAuditLogs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(auditRetention);
+        runJob(AUDIT_RETENTION, () -> {
+            List<Long> ids = auditLogRepository.findIdsOlderThan(cutoff, PageRequest.of(0, chunkSize));
+            return ids.isEmpty() ? 0 : auditLogRepository.deleteByIds(ids);
+        }, true);
+    }
+    
+    @Scheduled(cron = "${maintenance.outbox-retention-cron:0 45 3 * * *}")
+    public void purgeOutbox() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(outboxRetention);
+        runJob(OUTBOX_RETENTION, () -> {
+            List<Long> ids = outboxEmailRepository.findFinishedIdsBefore(cutoff, PageRequest.of(0, chunkSize));
+            return ids.isEmpty() ? 0 : outboxEmailRepository.deleteByIds(ids);
+        }, true);
+    }
+    
+    int runJob(String job, IntSupplier chunk) {
+        return runJob(job, chunk, false);
+    }
+    
+    /**
+     * Runs {@code chunk} until it affects fewer than a full chunk of rows. Otherwise the run stops
+     * at {@code max-chunks-per-run}, or with {@code untilDone} once less than a fifth of the
+     * lease TTL is left, and the rest is left for the next run.
+     *
+     * @return the rows affected, or 0 if the job is disabled or another node holds its lease
+     */
+    int runJob(String job, IntSupplier chunk, boolean untilDone) {
+        if (!enabled) {
+            return 0;
+        }
+        String lease = leaseService.tryAcquire("maintenance:" + job, leaseTtl);
+        if (lease == null) {
+            return 0;
+        }
+        
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        long stopAt = System.nanoTime() + leaseTtl.minus(leaseTtl.dividedBy(5)).toNanos();
+        int total = 0;
+        try {
+            for (int i = 0; untilDone ? System.nanoTime() - stopAt < 0 : i < maxChunksPerRun; i++) {
+                Integer affected = template.execute(status -> chunk.getAsInt());
+                if (affected == null || affected == 0) {
+                    break;
+                }
+                total += affected;
+                meterRegistry.counter("maintenance.rows", "job", job).increment(affected);
+                if (affected < chunkSize || !pause()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Maintenance job {} failed after {} rows: {}", job, total, e.getMessage(), e);
+        } finally {
+            sample.stop(meterRegistry.timer("maintenance.duration", "job", job));
+            leaseService.release("maintenance:" + job, lease);
+        }
+        
+        if (total > 0) {
+            log.info("Maintenance job {} affected {} rows", job, total);
+        }
+        return total;
+    }
+    
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenChunks.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,21 +1,18 @@
 package com.library.service;
 
-import com.library.domain.entity.OtpToken;
 import com.library.domain.entity.User;
-import com.library.repository.OtpTokenRepository;
 import com.library.util.OtpGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 
 @Service
 public class OtpService {
     
     @Autowired
-    private OtpTokenRepository otpTokenRepository;
+    private OtpStore otpStore;
     
     @Autowired
     private OtpGenerator otpGenerator;
@@ -26,24 +23,13 @@ public class OtpService {
     @Value("${security.otp-expiration-minutes:5}")
     private int otpExpirationMinutes;
     
-    @Transactional
+    @Value("${security.otp-max-attempts:5}")
+    private int otpMaxAttempts;
+    
     public String generateAndSendOtp(User user) {
-        // Delete any existing unused OTPs for this user
-        otpTokenRepository.deleteByUserId(user.getId());
-        
-        // Generate new OTP
+        // Generate new OTP, replacing any unused one for this user
         String otpCode = otpGenerator.generateOtp();
-        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(otpExpirationMinutes);
-        
-        // Save OTP token
-        OtpToken otpToken = OtpToken.builder()
-                .userId(user.getId())
-                .otpCode(otpCode)
-                .expiresAt(expiresAt)
-                .used(false)
-                .build();
-        
-        otpTokenRepository.save(otpToken);
+        otpStore.save(user.getId(), otpCode, Duration.ofMinutes(otpExpirationMinutes));
         
         // Send OTP via email
         emailService.sendOtpEmail(user.getEmail(), otpCode, user.getUsername());
@@ -52,27 +38,13 @@ public class OtpService {
     }
     
     public boolean verifyOtp(Long userId, String otpCode) {
-        OtpToken otpToken = otpTokenRepository.findValidOtpByUserIdAndCode(userId, otpCode)
-                .orElse(null);
-        
-        if (otpToken == null) {
-            return false;
-        }
-        
-        if (otpToken.isExpired() || otpToken.getUsed()) {
-            return false;
-        }
-        
-        // Mark OTP as used
-        otpToken.setUsed(true);
-        otpTokenRepository.save(otpToken);
-        
-        return true;
+        return otpStore.verifyAndConsume(userId, otpCode, otpMaxAttempts);
     }
     
-    @Transactional
-    public void cleanupExpiredOtps() {
-        otpTokenRepository.deleteExpiredTokens(LocalDateTime.now());
+    /**
+     * @return the number of codes removed, at most {@code limit}
+     */
+    public int cleanupExpiredOtps(int limit) {
+        return otpStore.purgeExpired(limit);
     }
 }
-
@@ -0,0 +1,30 @@
+package com.library.service;
+
+import java.time.Duration;
+
+/**
+ * Storage for one-time login codes. Selected with {@code security.otp-store}: {@code redis}
+ * (default) or {@code jpa}.
+ */
+public interface OtpStore {
+    
+    /**
+     * Stores a new code for the user, replacing any code that has not been used yet.
+     */
+    void save(Long userId, String otpCode, Duration ttl);
+    
+    /**
+     * Checks the code and consumes it on a match, atomically, so a code can be used only once.
+     * A wrong guess counts as an attempt; after {@code maxAttempts} the code is discarded.
+     *
+     * @return {@code true} if the code matched and has now been consumed
+     */
+    boolean verifyAndConsume(Long userId, String otpCode, int maxAttempts);
+    
+    /**
+     * Removes up to {@code limit} expired or used codes that the store does not expire on its own.
+     *
+     * @return the number of codes removed
+     */
+    int purgeExpired(int limit);
+}
@@ -0,0 +1,57 @@
+package com.library.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * Keeps each user's code in a Redis hash that expires with the code, so nothing is written to
+ * the database on login and there is nothing to clean up.
+ */
+@Component
+@ConditionalOnProperty(name = "security.otp-store", havingValue = "redis", matchIfMissing = true)
+public class RedisOtpStore implements OtpStore {
+    
+    private static final DefaultRedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>();
+    private static final DefaultRedisScript<Long> VERIFY_SCRIPT = new DefaultRedisScript<>();
+    
+    static {
+        SAVE_SCRIPT.setLocation(new ClassPathResource("redis/save-otp.lua"));
+        SAVE_SCRIPT.setResultType(Long.class);
+        VERIFY_SCRIPT.setLocation(new ClassPathResource("redis/verify-otp.lua"));
+        VERIFY_SCRIPT.setResultType(Long.class);
+    }
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Value("${security.otp-key-prefix:otp:}")
+    private String keyPrefix;
+    
+    @Override
+    public void save(Long userId, String otpCode, Duration ttl) {
+        // Overwrites both fields, so a new code also starts with a fresh attempt count
+        redisTemplate.execute(SAVE_SCRIPT, Collections.singletonList(keyPrefix + userId),
+                otpCode, String.valueOf(ttl.toMillis()));
+    }
+    
+    @Override
+    public boolean verifyAndConsume(Long userId, String otpCode, int maxAttempts) {
+        Long result = redisTemplate.execute(VERIFY_SCRIPT, Collections.singletonList(keyPrefix + userId),
+                otpCode, String.valueOf(maxAttempts));
+        return result != null && result == 1L;
+    }
+    
+    @Override
+    public int purgeExpired(int limit) {
+        // Keys expire on their own
+        return 0;
+    }
+}
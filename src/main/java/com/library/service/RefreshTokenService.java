@@ -0,0 +1,199 @@
+package com.library.service;
+
+import com.library.util.TokenDigest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Opaque refresh tokens stored in Redis, rotated on every use.
+ * <p>
+ * Tokens issued from one login form a family. Refreshing consumes the presented token and
+ * issues its successor in the same family; presenting a consumed token again means it was
+ * copied, so the whole family is revoked and the user has to log in again. Each token expires
+ * after {@code jwt.refresh.expiration} of inactivity and a family after
+ * {@code jwt.refresh.absolute-expiration}. Only SHA-256 digests of tokens are stored.
+ */
+@Service
+public class RefreshTokenService {
+    
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    
+    private static final DefaultRedisScript<Long> ISSUE_SCRIPT = new DefaultRedisScript<>();
+    
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> ROTATE_SCRIPT = new DefaultRedisScript<>();
+    
+    static {
+        ISSUE_SCRIPT.setLocation(new ClassPathResource("redis/issue-refresh-token.lua"));
+        ISSUE_SCRIPT.setResultType(Long.class);
+        ROTATE_SCRIPT.setLocation(new ClassPathResource("redis/rotate-refresh-token.lua"));
+        ROTATE_SCRIPT.setResultType(List.class);
+    }
+    
+    private final SecureRandom random = new SecureRandom();
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Value("${jwt.refresh.token-key-prefix:refresh-token:}")
+    private String tokenKeyPrefix;
+    
+    @Value("${jwt.refresh.family-key-prefix:refresh-family:}")
+    private String familyKeyPrefix;
+    
+    @Value("${jwt.refresh.user-key-prefix:refresh-user:}")
+    private String userKeyPrefix;
+    
+    @Value("${jwt.refresh.expiration:7d}")
+    private Duration expiration;
+    
+    @Value("${jwt.refresh.absolute-expiration:30d}")
+    private Duration absoluteExpiration;
+    
+    /**
+     * Starts a new family for a completed login.
+     *
+     * @return the refresh token, or {@code null} if Redis is unavailable; the client then
+     *         logs in again when the access token expires
+     */
+    public String issue(Long userId) {
+        String familyId = UUID.randomUUID().toString();
+        String token = newToken();
+        try {
+            // One script, so no key is ever left without its TTL; the user's family index lets
+            // a credential change end all of them
+            redisTemplate.execute(ISSUE_SCRIPT,
+                    Arrays.asList(familyKeyPrefix + familyId, userKeyPrefix + userId,
+                                  tokenKeyPrefix + TokenDigest.sha256(token)),
+                    userId.toString(), familyId,
+                    String.valueOf(absoluteExpiration.toMillis()), String.valueOf(expiration.toMillis()));
+            return token;
+        } catch (RuntimeException e) {
+            log.warn("Refresh token not issued for user {}, Redis error: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Consumes the token and issues its successor.
+     *
+     * @throws BadCredentialsException if the token is unknown, expired, revoked or reused
+     */
+    public Rotation rotate(String refreshToken) {
+        String successor = newToken();
+        List<?> result = redisTemplate.execute(ROTATE_SCRIPT,
+                Arrays.asList(tokenKeyPrefix + TokenDigest.sha256(refreshToken),
+                              tokenKeyPrefix + TokenDigest.sha256(successor)),
+                familyKeyPrefix, String.valueOf(expiration.toMillis()));
+        
+        long status = result == null || result.isEmpty() ? 0 : ((Number) result.get(0)).longValue();
+        if (status == 1) {
+            return new Rotation(Long.valueOf(result.get(1).toString()), successor);
+        }
+        if (status == -2) {
+            log.warn("Refresh token reuse detected for user {}, token family revoked", result.get(1));
+        }
+        throw new BadCredentialsException("Invalid or expired refresh token");
+    }
+    
+    /**
+     * Revokes the family the token belongs to, ending every session descended from that login.
+     * A token issued to anyone but {@code userId} is left alone.
+     *
+     * @return whether a family of the user was revoked
+     */
+    public boolean revoke(String refreshToken, Long userId) {
+        try {
+            List<Object> token = redisTemplate.opsForHash().multiGet(
+                    tokenKeyPrefix + TokenDigest.sha256(refreshToken), Arrays.asList("userId", "familyId"));
+            Object owner = token.get(0);
+            Object familyId = token.get(1);
+            if (owner == null || familyId == null) {
+                return false;
+            }
+            if (!owner.toString().equals(String.valueOf(userId))) {
+                log.warn("User {} tried to revoke a refresh token of user {}", userId, owner);
+                return false;
+            }
+            redisTemplate.delete(familyKeyPrefix + familyId);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to revoke refresh token family: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Revokes every family issued to the user, e.g. after a password reset. Inside a transaction
+     * this happens once it commits.
+     */
+    public void revokeAll(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revokeAllNow(userId);
+                }
+            });
+        } else {
+            revokeAllNow(userId);
+        }
+    }
+    
+    private void revokeAllNow(Long userId) {
+        String userKey = userKeyPrefix + userId;
+        try {
+            Set<String> familyIds = redisTemplate.opsForSet().members(userKey);
+            List<String> keys = new ArrayList<>();
+            keys.add(userKey);
+            if (familyIds != null) {
+                familyIds.forEach(familyId -> keys.add(familyKeyPrefix + familyId));
+            }
+            redisTemplate.delete(keys);
+        } catch (RuntimeException e) {
+            log.warn("Failed to revoke refresh token families of user {}: {}", userId, e.getMessage());
+        }
+    }
+    
+    private String newToken() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+    
+    public static final class Rotation {
+        private final Long userId;
+        private final String refreshToken;
+        
+        Rotation(Long userId, String refreshToken) {
+            this.userId = userId;
+            this.refreshToken = refreshToken;
+        }
+        
+        public Long getUserId() {
+            return userId;
+        }
+        
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
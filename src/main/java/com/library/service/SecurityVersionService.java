@@ -0,0 +1,79 @@
+package com.library.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.domain.entity.User;
+import com.library.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Per-user security versions, checked on every request authenticated from token claims alone.
+ * <p>
+ * Versions are cached in-process for a short TTL. A bump is visible on this node as soon as the
+ * transaction commits and on other nodes within the TTL, which bounds how long a token issued
+ * before a role change or deactivation keeps working.
+ */
+@Service
+public class SecurityVersionService {
+    
+    // Cached for deleted users so their tokens do not cause a query per request
+    private static final long NO_USER = -1L;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${jwt.security-version-cache.ttl:10s}")
+    private Duration ttl;
+    
+    @Value("${jwt.security-version-cache.max-size:100000}")
+    private long maxSize;
+    
+    private Cache<Long, Long> versions;
+    
+    @PostConstruct
+    public void init() {
+        versions = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+    
+    /**
+     * @return the user's current version, or {@code null} if the user no longer exists
+     */
+    public Long getVersion(Long userId) {
+        long version = versions.get(userId,
+                id -> userRepository.findSecurityVersionById(id).orElse(NO_USER));
+        return version == NO_USER ? null : version;
+    }
+    
+    /**
+     * Increments the user's version on the entity; the caller saves it. The cached version is
+     * dropped once the transaction commits.
+     */
+    public void bump(User user) {
+        long current = user.getSecurityVersion() == null ? 0L : user.getSecurityVersion();
+        user.setSecurityVersion(current + 1);
+        invalidate(user.getId());
+    }
+    
+    public void invalidate(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.invalidate(userId);
+                }
+            });
+        } else {
+            versions.invalidate(userId);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.library.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a few connected, authenticated SMTP sessions and sends many messages over each, instead
+ * of {@link JavaMailSender#send} connecting, negotiating TLS and authenticating for every email.
+ * <p>
+ * A session is closed after an error, after {@code mail-transport.max-messages-per-session}
+ * messages, when older than {@code max-session-age}, or when idle longer than {@code max-idle}
+ * (servers drop idle connections). A send only checks the session it takes, so a periodic sweep
+ * closes the others once they expire. A send on a reused session that fails is retried once on
+ * a new session, since the server may have closed the connection in the meantime.
+ */
+@Component
+public class SmtpTransportPool {
+    
+    private static final Logger log = LoggerFactory.getLogger(SmtpTransportPool.class);
+    
+    @Autowired
+    private JavaMailSender mailSender;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${mail-transport.pool-size:${email-outbox.workers:4}}")
+    private int poolSize;
+    
+    @Value("${mail-transport.max-messages-per-session:100}")
+    private int maxMessagesPerSession;
+    
+    @Value("${mail-transport.max-session-age:5m}")
+    private Duration maxSessionAge;
+    
+    @Value("${mail-transport.max-idle:30s}")
+    private Duration maxIdle;
+    
+    @Value("${mail-transport.borrow-timeout:10s}")
+    private Duration borrowTimeout;
+    
+    // Most recently used first, so surplus sessions go idle and age out
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private Semaphore permits;
+    
+    private Timer connectTimer;
+    private Timer sendSuccess;
+    private Timer sendFailure;
+    
+    @PostConstruct
+    public void start() {
+        permits = new Semaphore(poolSize);
+        
+        Gauge.builder("mail.transport.open", open, AtomicInteger::get)
+                .description("Open SMTP sessions")
+                .register(meterRegistry);
+        Gauge.builder("mail.transport.idle", idle, BlockingDeque::size)
+                .description("Open SMTP sessions not currently sending")
+                .register(meterRegistry);
+        connectTimer = Timer.builder("mail.transport.connect")
+                .description("Time to connect and authenticate a new SMTP session")
+                .register(meterRegistry);
+        sendSuccess = sendTimer("success");
+        sendFailure = sendTimer("failure");
+    }
+    
+    @PreDestroy
+    public void stop() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled, "shutdown");
+        }
+    }
+    
+    /**
+     * Closes the idle sessions that are no longer reusable. Sessions behind the head of the idle
+     * deque are otherwise only seen when a burst of sends reaches them.
+     *
+     * @return the number of sessions closed
+     */
+    @Scheduled(fixedDelayString = "${mail-transport.sweep-interval:10000}",
+               initialDelayString = "${mail-transport.sweep-interval:10000}")
+    public int sweep() {
+        int closed = 0;
+        for (PooledTransport pooled : idle) {
+            // A sender may have taken the session since the iterator saw it
+            if (!pooled.isReusable() && idle.removeFirstOccurrence(pooled)) {
+                close(pooled, "expired");
+                closed++;
+            }
+        }
+        return closed;
+    }
+    
+    /**
+     * Sends the message on a pooled session, waiting up to {@code borrow-timeout} for one.
+     *
+     * @throws MailException if the message could not be sent
+     */
+    public void send(SimpleMailMessage simpleMessage) {
+        if (!(mailSender instanceof JavaMailSenderImpl sender)) {
+            // No access to the underlying session; let the sender manage its own connections
+            long start = System.nanoTime();
+            try {
+                mailSender.send(simpleMessage);
+                sendSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } catch (MailException e) {
+                sendFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+            return;
+        }
+        MimeMessage message = sender.createMimeMessage();
+        simpleMessage.copyTo(new MimeMailMessage(message));
+        
+        acquirePermit();
+        try {
+            PooledTransport pooled = idle.pollFirst();
+            if (pooled != null && !pooled.isReusable()) {
+                close(pooled, "expired");
+                pooled = null;
+            }
+            boolean reused = pooled != null;
+            if (pooled == null) {
+                pooled = connect(sender);
+            }
+            
+            try {
+                deliver(pooled, message);
+            } catch (MessagingException e) {
+                close(pooled, "error");
+                if (!reused) {
+                    throw new MailSendException("Failed to send email: " + e.getMessage(), e);
+                }
+                log.debug("Send on reused SMTP session failed, retrying on a new one: {}", e.getMessage());
+                pooled = connect(sender);
+                try {
+                    deliver(pooled, message);
+                } catch (MessagingException retryError) {
+                    close(pooled, "error");
+                    throw new MailSendException("Failed to send email: " + retryError.getMessage(), retryError);
+                }
+            }
+            idle.offerFirst(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+    
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("No SMTP session became available within " + borrowTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP session");
+        }
+    }
+    
+    private PooledTransport connect(JavaMailSenderImpl sender) {
+        long start = System.nanoTime();
+        try {
+            Transport transport = sender.getSession().getTransport(
+                    sender.getProtocol() != null ? sender.getProtocol() : "smtp");
+            transport.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+            open.incrementAndGet();
+            return new PooledTransport(transport);
+        } catch (AuthenticationFailedException e) {
+            throw new MailAuthenticationException(e);
+        } catch (MessagingException e) {
+            throw new MailSendException("Failed to connect to SMTP server: " + e.getMessage(), e);
+        } finally {
+            connectTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private void deliver(PooledTransport pooled, MimeMessage message) throws MessagingException {
+        long start = System.nanoTime();
+        try {
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+            pooled.transport.sendMessage(message, message.getAllRecipients());
+            sendSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (MessagingException e) {
+            sendFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        pooled.messagesSent++;
+        pooled.lastUsedAt = System.nanoTime();
+    }
+    
+    private void close(PooledTransport pooled, String reason) {
+        open.decrementAndGet();
+        meterRegistry.counter("mail.transport.closed", "reason", reason).increment();
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP session: {}", e.getMessage());
+        }
+    }
+    
+    private Timer sendTimer(String outcome) {
+        return Timer.builder("mail.send.duration")
+                .description("Time to send one email over an open SMTP session")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    private class PooledTransport {
+        private final Transport transport;
+        private final long createdAt = System.nanoTime();
+        private long lastUsedAt = createdAt;
+        private int messagesSent;
+        
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+        
+        private boolean isReusable() {
+            long now = System.nanoTime();
+            return messagesSent < maxMessagesPerSession
+                    && now - createdAt < maxSessionAge.toNanos()
+                    && now - lastUsedAt < maxIdle.toNanos();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.library.service;
+
+import com.library.security.JwtClaims;
+import com.library.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Revoked token ids ({@code jti}). Each revocation is stored in Redis under its own key, with a
+ * TTL equal to the token's remaining lifetime, and appended to a sorted set scored by revocation
+ * time.
+ * <p>
+ * Every node keeps a Bloom filter of revoked ids and tails the sorted set to pick up revocations
+ * made elsewhere, so the authentication path only goes to Redis for the rare id the filter
+ * reports as possibly revoked. The filter is rebuilt periodically to drop ids whose tokens have
+ * expired.
+ */
+@Service
+public class TokenRevocationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Value("${jwt.expiration}")
+    private long tokenLifetimeMillis;
+    
+    @Value("${jwt.revocation.key-prefix:revoked-token:}")
+    private String keyPrefix;
+    
+    @Value("${jwt.revocation.index-key:revoked-tokens}")
+    private String indexKey;
+    
+    @Value("${jwt.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+    
+    @Value("${jwt.revocation.false-positive-probability:0.001}")
+    private double falsePositiveProbability;
+    
+    // Re-read this much of the index on each refresh to tolerate clock skew between nodes
+    @Value("${jwt.revocation.refresh-overlap:5s}")
+    private Duration refreshOverlap;
+    
+    private volatile BloomFilter revoked;
+    private volatile long refreshedUntil;
+    
+    @PostConstruct
+    public void init() {
+        revoked = new BloomFilter(expectedRevocations, falsePositiveProbability);
+        rebuild();
+    }
+    
+    /**
+     * Revokes the token until it would have expired anyway. The id is added to this node's filter
+     * first, so the token stops working here even if Redis is unavailable.
+     */
+    public void revoke(JwtClaims claims) {
+        if (claims.getTokenId() == null || claims.getExpiresAt() == null) {
+            return;
+        }
+        Duration remaining = Duration.between(Instant.now(), claims.getExpiresAt());
+        if (remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+        revoked.put(claims.getTokenId());
+        try {
+            redisTemplate.opsForValue().set(keyPrefix + claims.getTokenId(), "1", remaining);
+            redisTemplate.opsForZSet().add(indexKey, claims.getTokenId(), System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.warn("Token {} revoked on this node only, Redis error: {}", claims.getTokenId(), e.getMessage());
+        }
+    }
+    
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !revoked.mightContain(tokenId)) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(keyPrefix + tokenId));
+        } catch (RuntimeException e) {
+            // A filter hit is most likely a real revocation, so fail closed
+            log.warn("Treating token {} as revoked, Redis error: {}", tokenId, e.getMessage());
+            return true;
+        }
+    }
+    
+    /**
+     * Adds revocations made since the previous refresh, on any node, to this node's filter.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:1000}")
+    public void refresh() {
+        try {
+            long from = refreshedUntil - refreshOverlap.toMillis();
+            Set<ZSetOperations.TypedTuple<String>> added =
+                    redisTemplate.opsForZSet().rangeByScoreWithScores(indexKey, from, Double.POSITIVE_INFINITY);
+            refreshedUntil = addAll(revoked, added, refreshedUntil);
+        } catch (RuntimeException e) {
+            log.debug("Revocation refresh skipped, Redis error: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Replaces the filter with one holding only revocations that can still matter, and trims the
+     * index. Anything older than the token lifetime belongs to a token that has already expired.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:3600000}",
+               initialDelayString = "${jwt.revocation.rebuild-interval:3600000}")
+    public void rebuild() {
+        try {
+            long now = System.currentTimeMillis();
+            long oldest = now - tokenLifetimeMillis;
+            redisTemplate.opsForZSet().removeRangeByScore(indexKey, Double.NEGATIVE_INFINITY, oldest);
+            Set<ZSetOperations.TypedTuple<String>> live =
+                    redisTemplate.opsForZSet().rangeByScoreWithScores(indexKey, oldest, Double.POSITIVE_INFINITY);
+            
+            BloomFilter rebuilt = new BloomFilter(expectedRevocations, falsePositiveProbability);
+            long until = addAll(rebuilt, live, now);
+            revoked = rebuilt;
+            // Revocations written while the snapshot was read are picked up by the next refresh
+            refreshedUntil = until;
+        } catch (RuntimeException e) {
+            log.warn("Revocation filter rebuild skipped, Redis error: {}", e.getMessage());
+        }
+    }
+    
+    private static long addAll(BloomFilter filter, Set<ZSetOperations.TypedTuple<String>> tuples, long until) {
+        if (tuples == null) {
+            return until;
+        }
+        long latest = until;
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            filter.put(tuple.getValue());
+            if (tuple.getScore() != null) {
+                latest = Math.max(latest, tuple.getScore().longValue());
+            }
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,75 @@
+package com.library.service;
+
+import com.library.domain.entity.User;
+import com.library.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Finds a user by the identifier typed at login. An identifier containing {@code @} is an email,
+ * anything else a username, so each lookup hits one unique index on a normalized (lower-cased)
+ * column instead of an {@code OR} across two columns.
+ * <p>
+ * Usernames can no longer contain {@code @}, but accounts created before that rule keep theirs.
+ * If any exist at startup, an email-shaped identifier that matches no email is also tried as a
+ * username, so those accounts can still sign in by username.
+ */
+@Service
+public class UserLookupService implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(UserLookupService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    // Only ever turns false -> true at startup; new usernames cannot contain '@'
+    private volatile boolean legacyUsernamesWithAt;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        int updated = userRepository.backfillNormalizedIdentifiers();
+        if (updated > 0) {
+            log.info("Backfilled normalized username and email for {} users", updated);
+        }
+        long legacy = userRepository.countByUsernameContaining("@");
+        if (legacy > 0) {
+            legacyUsernamesWithAt = true;
+            log.warn("{} users have a username containing '@'; their usernames are also matched on email-shaped logins",
+                    legacy);
+        }
+    }
+    
+    public Optional<User> findByIdentifier(String identifier) {
+        String normalized = User.normalizeIdentifier(identifier);
+        if (normalized == null || normalized.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!isEmail(normalized)) {
+            return userRepository.findByUsernameNormalized(normalized);
+        }
+        
+        Optional<User> user = userRepository.findByEmailNormalized(normalized);
+        if (user.isEmpty() && legacyUsernamesWithAt) {
+            return userRepository.findByUsernameNormalized(normalized);
+        }
+        return user;
+    }
+    
+    public boolean usernameExists(String username) {
+        return userRepository.existsByUsernameNormalized(User.normalizeIdentifier(username));
+    }
+    
+    public boolean emailExists(String email) {
+        return userRepository.existsByEmailNormalized(User.normalizeIdentifier(email));
+    }
+    
+    private static boolean isEmail(String identifier) {
+        return identifier.indexOf('@') >= 0;
+    }
+}
@@ -5,12 +5,16 @@ import com.library.domain.enums.AuditAction;
 import com.library.dto.request.UserUpdateRequest;
 import com.library.dto.response.UserResponse;
 import com.library.exception.ResourceNotFoundException;
+import com.library.repository.ArticleRepository;
+import com.library.repository.ArticleSummary;
 import com.library.repository.UserRepository;
+import com.library.security.UserDetailsCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,6 +30,30 @@ public class UserService {
     @Autowired
     private AuditLogService auditLogService;
     
+    @Autowired
+    private ArticleRepository articleRepository;
+    
+    @Autowired
+    private ArticleStatisticsService articleStatisticsService;
+    
+    @Autowired
+    private ArticleCacheService articleCacheService;
+    
+    @Autowired
+    private SecurityVersionService securityVersionService;
+    
+    @Autowired
+    private UserLookupService userLookupService;
+    
+    @Autowired
+    private IdentifierAvailabilityService identifierAvailabilityService;
+    
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
     public List<UserResponse> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(this::convertToResponse)
@@ -49,7 +77,11 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         
+        String previousUsername = user.getUsername();
         boolean updated = false;
+        // Changes that must invalidate tokens already issued to this user
+        boolean securityChanged = false;
+        boolean passwordChanged = false;
         StringBuilder changes = new StringBuilder();
         
         if (request.getFullname() != null && !request.getFullname().equals(user.getFullname())) {
@@ -59,16 +91,20 @@ public class UserService {
         }
         
         if (request.getUsername() != null && !request.getUsername().equals(user.getUsername())) {
-            if (userRepository.existsByUsername(request.getUsername())) {
+            // A change of case only keeps the same normalized username
+            if (!sameIdentifier(request.getUsername(), user.getUsername())
+                    && userLookupService.usernameExists(request.getUsername())) {
                 throw new IllegalArgumentException("Username already exists");
             }
             user.setUsername(request.getUsername());
             changes.append("username, ");
             updated = true;
+            securityChanged = true;
         }
         
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
-            if (userRepository.existsByEmail(request.getEmail())) {
+            if (!sameIdentifier(request.getEmail(), user.getEmail())
+                    && userLookupService.emailExists(request.getEmail())) {
                 throw new IllegalArgumentException("Email already exists");
             }
             user.setEmail(request.getEmail());
@@ -80,22 +116,36 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
             changes.append("password, ");
             updated = true;
+            securityChanged = true;
+            passwordChanged = true;
         }
         
         if (request.getRole() != null && !request.getRole().equals(user.getRole())) {
             user.setRole(request.getRole());
             changes.append("role, ");
             updated = true;
+            securityChanged = true;
         }
         
         if (request.getEnabled() != null && !request.getEnabled().equals(user.getEnabled())) {
             user.setEnabled(request.getEnabled());
             changes.append("enabled, ");
             updated = true;
+            securityChanged = true;
+        }
+        
+        if (securityChanged) {
+            securityVersionService.bump(user);
+        }
+        if (passwordChanged) {
+            // Sessions started with the old password must not outlive it
+            refreshTokenService.revokeAll(user.getId());
         }
         
         if (updated) {
             user = userRepository.save(user);
+            identifierAvailabilityService.record(user);
+            userDetailsCache.evict(previousUsername);
             
             // Get current user for audit
             User currentUser = userRepository.findByUsername(currentUsername).orElse(null);
@@ -117,7 +167,17 @@ public class UserService {
         // Get current user for audit
         User currentUser = userRepository.findByUsername(currentUsername).orElse(null);
         
+        // The author's articles are soft-deleted in one statement; ArticlePurgeService removes them later
+        List<ArticleSummary> articles = articleRepository.findSummariesByAuthorId(id);
+        if (!articles.isEmpty()) {
+            articleStatisticsService.recordDeleted(articles);
+            articleRepository.softDeleteByAuthorId(id, LocalDateTime.now());
+            articleCacheService.evictAll();
+        }
+        
         userRepository.delete(user);
+        securityVersionService.invalidate(id);
+        userDetailsCache.evict(user.getUsername());
         
         if (currentUser != null) {
             auditLogService.logUserAction(AuditAction.USER_DELETED, 
@@ -126,11 +186,20 @@ public class UserService {
         }
     }
     
+    public User getUserEntityById(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+    }
+    
     public User getUserEntityByUsername(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
     }
     
+    private static boolean sameIdentifier(String a, String b) {
+        return User.normalizeIdentifier(a).equals(User.normalizeIdentifier(b));
+    }
+    
     private UserResponse convertToResponse(User user) {
         return UserResponse.builder()
                 .id(user.getId())
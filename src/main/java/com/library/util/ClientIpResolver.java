@@ -0,0 +1,31 @@
+package com.library.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resolves the client address that per-client limits are keyed on. This is the connection's
+ * address, unless the connection comes from one of {@code security.trusted-proxies}; then it is
+ * the right-most {@code X-Forwarded-For} entry, the one that proxy appended. Entries further left
+ * are supplied by the client and can be forged.
+ */
+@Component
+public class ClientIpResolver {
+    
+    @Value("${security.trusted-proxies:}")
+    private List<String> trustedProxies = Collections.emptyList();
+    
+    public String resolve(HttpServletRequest request) {
+        String remoteAddress = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || !trustedProxies.contains(remoteAddress)) {
+            return remoteAddress;
+        }
+        String clientAddress = forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+        return clientAddress.isEmpty() ? remoteAddress : clientAddress;
+    }
+}
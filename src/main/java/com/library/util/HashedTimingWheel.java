@@ -0,0 +1,114 @@
+package com.library.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel: timeouts are hashed into {@code wheelSize} buckets by deadline tick, so
+ * scheduling is O(1) and each tick only inspects one bucket. Timeouts further away than one
+ * revolution stay in their bucket until their deadline tick comes round.
+ * <p>
+ * The wheel does not own a thread; the caller drives it with {@link #advance(long)}, which
+ * returns everything that expired since the previous call. {@link #schedule} is thread-safe.
+ */
+public class HashedTimingWheel<T> {
+    
+    private final long tickMillis;
+    private final List<List<Timeout<T>>> buckets;
+    private final int mask;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private long currentTick;
+    
+    public HashedTimingWheel(Duration tick, int wheelSize, long startMillis) {
+        if (tick.toMillis() <= 0) {
+            throw new IllegalArgumentException("Tick must be at least 1 ms");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickMillis = tick.toMillis();
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+    
+    public Timeout<T> schedule(T task, long deadlineMillis) {
+        // Round up so a timeout never fires before its deadline
+        Timeout<T> timeout = new Timeout<>(task, (deadlineMillis + tickMillis - 1) / tickMillis);
+        pending.add(timeout);
+        return timeout;
+    }
+    
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns the tasks whose deadline has passed,
+     * in no particular order. Overdue timeouts, including ones scheduled in the past, expire on the
+     * first call after they were scheduled.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            if (timeout.deadlineTick <= currentTick) {
+                timeout.expired = true;
+                expired.add(timeout.task);
+            } else {
+                buckets.get((int) (timeout.deadlineTick & mask)).add(timeout);
+            }
+        }
+        
+        // A full revolution visits every bucket, so never walk more ticks than that
+        long ticks = Math.min(nowTick - currentTick, buckets.size());
+        for (long i = 1; i <= ticks; i++) {
+            Iterator<Timeout<T>> bucket = buckets.get((int) ((currentTick + i) & mask)).iterator();
+            while (bucket.hasNext()) {
+                Timeout<T> candidate = bucket.next();
+                if (candidate.cancelled) {
+                    bucket.remove();
+                } else if (candidate.deadlineTick <= nowTick) {
+                    bucket.remove();
+                    candidate.expired = true;
+                    expired.add(candidate.task);
+                }
+            }
+        }
+        
+        currentTick = Math.max(currentTick, nowTick);
+        return expired;
+    }
+    
+    public static final class Timeout<T> {
+        private final T task;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+        private volatile boolean expired;
+        
+        private Timeout(T task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+        
+        public T getTask() {
+            return task;
+        }
+        
+        public boolean isExpired() {
+            return expired;
+        }
+        
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.library.util;
 
+import com.library.security.JwtClaims;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -13,6 +17,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -24,9 +29,35 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
     
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Both are immutable and thread-safe, so they are built once and shared by all requests
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+    
+    /**
+     * Parses the token once, verifying signature and expiry in the same pass.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public JwtClaims verify(String token) {
+        Claims claims = extractAllClaims(token);
+        Object userId = claims.get("userId");
+        Object securityVersion = claims.get("securityVersion");
+        return JwtClaims.builder()
+                .tokenId(claims.getId())
+                .subject(claims.getSubject())
+                .userId(userId instanceof Number ? ((Number) userId).longValue() : null)
+                .email(claims.get("email", String.class))
+                .role(claims.get("role", String.class))
+                .securityVersion(securityVersion instanceof Number ? ((Number) securityVersion).longValue() : null)
+                .issuedAt(claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null)
+                .expiresAt(claims.getExpiration() != null ? claims.getExpiration().toInstant() : null)
+                .build();
     }
     
     public String extractUsername(String token) {
@@ -43,11 +74,7 @@ public class JwtUtil {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
     
     private Boolean isTokenExpired(String token) {
@@ -69,10 +96,11 @@ public class JwtUtil {
         
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
@@ -83,8 +111,8 @@ public class JwtUtil {
     
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            verify(token);
+            return true;
         } catch (Exception e) {
             return false;
         }
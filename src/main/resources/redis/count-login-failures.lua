@@ -0,0 +1,8 @@
+-- Counts the failed logins within a sliding window written by record-login-failure.lua, on the
+-- same Redis server clock.
+-- KEYS[1] window key
+-- ARGV[1] window in ms
+-- Returns the number of failures within the window
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+return redis.call('ZCOUNT', KEYS[1], '(' .. (now - tonumber(ARGV[1])), '+inf')
@@ -0,0 +1,10 @@
+-- Starts a refresh token family: the family, its entry in the user's family index and the
+-- first token are written together, each with its TTL.
+-- KEYS[1] family, KEYS[2] user's family index, KEYS[3] token
+-- ARGV[1] userId, ARGV[2] familyId, ARGV[3] family TTL in ms, ARGV[4] token TTL in ms
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+redis.call('SADD', KEYS[2], ARGV[2])
+redis.call('PEXPIRE', KEYS[2], ARGV[3])
+redis.call('HSET', KEYS[3], 'userId', ARGV[1], 'familyId', ARGV[2], 'used', '0')
+redis.call('PEXPIRE', KEYS[3], ARGV[4])
+return 1
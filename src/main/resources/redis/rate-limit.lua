@@ -0,0 +1,28 @@
+-- Takes a token from a bucket refilled in full once per period, like Refill.intervally locally.
+-- Time comes from the Redis server, so nodes with skewed clocks still share one refill schedule.
+-- KEYS[1] bucket key
+-- ARGV[1] capacity, ARGV[2] period in ms
+-- Returns the tokens left after taking one, or -1 if the bucket is empty
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local capacity = tonumber(ARGV[1])
+local period = tonumber(ARGV[2])
+local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'refilled_at')
+local tokens = tonumber(bucket[1])
+local refilledAt = tonumber(bucket[2])
+if tokens == nil or refilledAt == nil then
+  tokens = capacity
+  refilledAt = now
+elseif now - refilledAt >= period then
+  tokens = capacity
+  refilledAt = refilledAt + math.floor((now - refilledAt) / period) * period
+end
+local remaining = -1
+if tokens > 0 then
+  tokens = tokens - 1
+  remaining = tokens
+end
+redis.call('HSET', KEYS[1], 'tokens', tokens, 'refilled_at', refilledAt)
+-- A bucket left alone for a period is full again, so it can go
+redis.call('PEXPIRE', KEYS[1], period)
+return remaining
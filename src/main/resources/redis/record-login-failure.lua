@@ -0,0 +1,14 @@
+-- Records a failed login in a sliding window kept as a sorted set scored by time. Time comes
+-- from the Redis server, so every node scores and trims the shared window on one clock.
+-- KEYS[1] window key
+-- ARGV[1] window in ms, ARGV[2] max entries kept, ARGV[3] unique member
+-- Returns the number of failures within the window, including this one
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local window = tonumber(ARGV[1])
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+redis.call('ZADD', KEYS[1], now, ARGV[3])
+-- Counts beyond the largest threshold change nothing, so older entries can go
+redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[2]) + 1))
+redis.call('PEXPIRE', KEYS[1], window)
+return redis.call('ZCARD', KEYS[1])
@@ -0,0 +1,5 @@
+-- Deletes the lease only if it is still held by the caller's token
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
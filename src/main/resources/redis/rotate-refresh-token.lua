@@ -0,0 +1,29 @@
+-- Rotates a refresh token: marks the presented token used and stores its successor in the
+-- same family. A used token stays until its TTL runs out so that replaying it can be detected.
+-- KEYS[1] presented token, KEYS[2] successor token
+-- ARGV[1] family key prefix, ARGV[2] successor TTL in ms
+-- Returns {1, userId} rotated, {0} unknown or expired, {-1, userId} family revoked,
+-- {-2, userId} reuse detected (the family is revoked)
+local token = redis.call('HMGET', KEYS[1], 'userId', 'familyId', 'used')
+if not token[1] then
+    return {0}
+end
+local userId, familyId, used = token[1], token[2], token[3]
+local familyKey = ARGV[1] .. familyId
+if used == '1' then
+    redis.call('DEL', familyKey)
+    return {-2, userId}
+end
+if redis.call('EXISTS', familyKey) == 0 then
+    return {-1, userId}
+end
+redis.call('HSET', KEYS[1], 'used', '1')
+redis.call('HSET', KEYS[2], 'userId', userId, 'familyId', familyId, 'used', '0')
+-- A successor never outlives its family
+local ttl = tonumber(ARGV[2])
+local familyTtl = redis.call('PTTL', familyKey)
+if familyTtl > 0 and familyTtl < ttl then
+    ttl = familyTtl
+end
+redis.call('PEXPIRE', KEYS[2], ttl)
+return {1, userId}
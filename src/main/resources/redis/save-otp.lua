@@ -0,0 +1,6 @@
+-- Stores a one-time code with a fresh attempt count and its TTL in one step, so a code can
+-- never be left behind without an expiry.
+-- KEYS[1] code hash, ARGV[1] code, ARGV[2] TTL in ms
+redis.call('HSET', KEYS[1], 'code', ARGV[1], 'attempts', '0')
+redis.call('PEXPIRE', KEYS[1], ARGV[2])
+return 1
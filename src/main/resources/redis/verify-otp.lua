@@ -0,0 +1,16 @@
+-- Verifies a one-time code and consumes it on a match. A wrong guess increments the attempt
+-- count and the code is discarded once the count reaches the limit.
+-- KEYS[1] code hash, ARGV[1] presented code, ARGV[2] max attempts
+-- Returns 1 matched, 0 no code stored, -1 wrong code
+local code = redis.call('HGET', KEYS[1], 'code')
+if not code then
+    return 0
+end
+if code == ARGV[1] then
+    redis.call('DEL', KEYS[1])
+    return 1
+end
+if redis.call('HINCRBY', KEYS[1], 'attempts', 1) >= tonumber(ARGV[2]) then
+    redis.call('DEL', KEYS[1])
+end
+return -1
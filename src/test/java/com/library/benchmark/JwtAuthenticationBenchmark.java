@@ -0,0 +1,97 @@
+package com.library.benchmark;
+
+import com.library.security.JwtClaims;
+import com.library.security.VerifiedTokenCache;
+import com.library.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the previous filter path, which rebuilt
+ * the key and parser and parsed the token three times, against a single {@link JwtUtil#verify}
+ * and against a hit in the {@link VerifiedTokenCache}.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtAuthenticationBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+    
+    private static final String SECRET = "testSecretKeyForJWTTokenGenerationMustBeLongEnoughForHS256Algorithm";
+    
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        jwtUtil.init();
+        
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", 1L);
+        claims.put("email", "admin@library.com");
+        claims.put("role", "SUPER_ADMIN");
+        token = jwtUtil.generateToken("admin", claims);
+        
+        verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(verifiedTokenCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(verifiedTokenCache, "enabled", true);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxSize", 1000L);
+        verifiedTokenCache.init();
+    }
+    
+    @Benchmark
+    public void legacyTriplePass(Blackhole blackhole) {
+        // extractUsername, then validateToken(token, userDetails): username + expiration
+        String username = legacyParse(token).getSubject();
+        boolean valid = username.equals(legacyParse(token).getSubject())
+                && !legacyParse(token).getExpiration().before(new Date());
+        blackhole.consume(valid);
+    }
+    
+    @Benchmark
+    public JwtClaims singlePassVerify() {
+        return jwtUtil.verify(token);
+    }
+    
+    @Benchmark
+    public JwtClaims cachedVerify() {
+        return verifiedTokenCache.verify(token);
+    }
+    
+    private static Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
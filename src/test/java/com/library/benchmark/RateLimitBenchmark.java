@@ -0,0 +1,107 @@
+package com.library.benchmark;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.library.security.RateLimitFilter;
+import com.library.util.ClientIpResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the rate limiter with per-node buckets against buckets shared in Redis,
+ * where every request makes one script call.
+ * <p>
+ * By default the Redis store runs against an in-process Redis server, which measures the client
+ * and round-trip overhead but not a real server; point it at one with
+ * {@code -Dbenchmark.redis.port=6379} (and {@code -Dbenchmark.redis.host}).
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="RateLimitBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitBenchmark {
+    
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+    
+    @Param({"local", "redis"})
+    private String store;
+    
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private RateLimitFilter rateLimitFilter;
+    private MockHttpServletRequest request;
+    
+    @Setup
+    public void setUp() throws IOException {
+        String host = System.getProperty("benchmark.redis.host", "localhost");
+        Integer port = Integer.getInteger("benchmark.redis.port");
+        if (port == null) {
+            redisServer = RedisServer.newRedisServer(0);
+            redisServer.start();
+            port = redisServer.getBindPort();
+        }
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        
+        rateLimitFilter = new RateLimitFilter();
+        ReflectionTestUtils.setField(rateLimitFilter, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(rateLimitFilter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(rateLimitFilter, "clientIpResolver", new ClientIpResolver());
+        ReflectionTestUtils.setField(rateLimitFilter, "rateLimitEnabled", true);
+        // High enough that no request is rejected during a run
+        ReflectionTestUtils.setField(rateLimitFilter, "requestsPerMinute", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(rateLimitFilter, "maxBuckets", 100000L);
+        ReflectionTestUtils.setField(rateLimitFilter, "bucketIdleTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(rateLimitFilter, "store", store);
+        ReflectionTestUtils.setField(rateLimitFilter, "keyPrefix", "benchmark:rate-limit:");
+        ReflectionTestUtils.setField(rateLimitFilter, "redisRetryInterval", Duration.ofSeconds(5));
+        rateLimitFilter.init();
+        
+        request = new MockHttpServletRequest("GET", "/api/articles");
+        request.setRemoteAddr("10.0.0.1");
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        connectionFactory.destroy();
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+    
+    @Benchmark
+    public MockHttpServletResponse filterRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, NO_OP_CHAIN);
+        if (response.getStatus() != 200) {
+            throw new IllegalStateException("Request rejected with " + response.getStatus());
+        }
+        return response;
+    }
+}
@@ -1,6 +1,7 @@
 package com.library.controller;
 
 import com.library.dto.request.LoginRequest;
+import com.library.dto.request.RefreshTokenRequest;
 import com.library.dto.request.RegisterRequest;
 import com.library.dto.request.VerifyOtpRequest;
 import com.library.dto.response.AuthResponse;
@@ -16,6 +17,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -112,4 +114,29 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data.token").value("jwt-token"));
     }
+    
+    @Test
+    void testLogout() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                .header("Authorization", "Bearer jwt-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+        
+        verify(authService).logout("jwt-token", null);
+    }
+    
+    @Test
+    void testRefresh() throws Exception {
+        AuthResponse response = new AuthResponse("new-jwt-token", 1L, "testuser", "test@example.com", "VIEWER");
+        response.setRefreshToken("new-refresh-token");
+        
+        when(authService.refresh(any(RefreshTokenRequest.class))).thenReturn(response);
+        
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refresh-token"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.token").value("new-jwt-token"))
+                .andExpect(jsonPath("$.data.refreshToken").value("new-refresh-token"));
+    }
 }
@@ -0,0 +1,381 @@
+package com.library.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives register, login, OTP delivery, verify-otp and authenticated requests end to end
+ * against the running application, with an H2 database, an in-process Redis server and an
+ * in-memory SMTP server that captures the OTP emails. Reports throughput and latency
+ * percentiles per step and fails on any failed flow or a p95 over its budget.
+ * <p>
+ * Excluded from the default build. Run with {@code mvn -Ploadtest test}, tuned with
+ * {@code -Dloadtest.users}, {@code -Dloadtest.concurrency}, {@code -Dloadtest.warmup-users},
+ * {@code -Dloadtest.authenticated-requests}, {@code -Dloadtest.bcrypt-strength} and per-step
+ * budgets such as {@code -Dloadtest.budget.login=250} (p95, in milliseconds).
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "security.otp-store=redis",
+        "security.login-attempts.store=redis",
+        "security.user-details-cache.broadcast=true",
+        "email-outbox.enabled=true",
+        "password-hashing.bcrypt-strength=${loadtest.bcrypt-strength:10}",
+        "rate-limit.enabled=false",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false"
+})
+@ActiveProfiles("test")
+// Closed after this class rather than at JVM exit, so the Redis server below stops with it
+@DirtiesContext
+class AuthFlowLoadTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(AuthFlowLoadTest.class);
+    
+    private static final String PASSWORD = "loadTestPassword1";
+    private static final Pattern OTP_CODE = Pattern.compile("login is: (\\d+)");
+    private static final Duration OTP_TIMEOUT = Duration.ofSeconds(30);
+    
+    private static final String REGISTER = "register";
+    private static final String LOGIN = "login";
+    private static final String OTP_DELIVERY = "otp-delivery";
+    private static final String VERIFY_OTP = "verify-otp";
+    private static final String AUTHENTICATED = "authenticated-request";
+    
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication())
+            .withPerMethodLifecycle(false);
+    
+    private static RedisServer redis;
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    
+    private final AtomicInteger userSequence = new AtomicInteger();
+    
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) throws IOException {
+        redis = RedisServer.newRedisServer(0);
+        redis.start();
+        registry.add("spring.data.redis.host", () -> "localhost");
+        registry.add("spring.data.redis.port", redis::getBindPort);
+    }
+    
+    /**
+     * Stops the Redis server when the context closes, after the connection factory and the
+     * listener container have stopped, so nothing is left reconnecting to it.
+     */
+    @TestConfiguration
+    static class RedisServerShutdown {
+        
+        @Bean
+        SmartLifecycle redisServerShutdown() {
+            return new SmartLifecycle() {
+                private volatile boolean running;
+                
+                @Override
+                public void start() {
+                    running = true;
+                }
+                
+                @Override
+                public void stop() {
+                    running = false;
+                    try {
+                        redis.stop();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                
+                @Override
+                public boolean isRunning() {
+                    return running;
+                }
+                
+                // Stopped last
+                @Override
+                public int getPhase() {
+                    return Integer.MIN_VALUE;
+                }
+            };
+        }
+    }
+    
+    @Test
+    void authenticationFlow() throws Exception {
+        int users = Integer.getInteger("loadtest.users", 200);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+        int warmupUsers = Integer.getInteger("loadtest.warmup-users", 20);
+        int authenticatedRequests = Integer.getInteger("loadtest.authenticated-requests", 5);
+        
+        // Warm-up: JIT, connection pools, BCrypt calibration; results are discarded
+        run(warmupUsers, concurrency, authenticatedRequests);
+        
+        Run run = run(users, concurrency, authenticatedRequests);
+        log.info("Auth flow load test: {} users, concurrency {}, {} authenticated requests each\n{}",
+                users, concurrency, authenticatedRequests, run.report());
+        
+        assertEquals(0, run.failedFlows.get(), "Failed flows; first errors: " + run.firstErrors());
+        for (StepStats step : run.steps.values()) {
+            Long budget = Long.getLong("loadtest.budget." + step.name);
+            if (budget != null) {
+                assertTrue(step.percentileMillis(95) <= budget,
+                        step.name + " p95 " + step.percentileMillis(95) + " ms exceeds budget " + budget + " ms");
+            }
+        }
+    }
+    
+    private Run run(int users, int concurrency, int authenticatedRequests) throws Exception {
+        Run run = new Run();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> flows = new ArrayList<>(users);
+            for (int i = 0; i < users; i++) {
+                flows.add(pool.submit(() -> flow(run, authenticatedRequests)));
+            }
+            for (Future<?> flow : flows) {
+                flow.get();
+            }
+            run.elapsedNanos = System.nanoTime() - start;
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        return run;
+    }
+    
+    private void flow(Run run, int authenticatedRequests) {
+        String username = "load" + System.nanoTime() + "u" + userSequence.incrementAndGet();
+        String email = username + "@loadtest.local";
+        try {
+            run.step(REGISTER).time(() -> post("/api/auth/register", Map.of(
+                    "fullname", "Load Test User",
+                    "username", username,
+                    "email", email,
+                    "password", PASSWORD), 201));
+            
+            run.step(LOGIN).time(() -> post("/api/auth/login", Map.of(
+                    "usernameOrEmail", username,
+                    "password", PASSWORD), 200));
+            
+            String otp = run.step(OTP_DELIVERY).time(() -> awaitOtp(email));
+            
+            JsonNode verified = run.step(VERIFY_OTP).time(() -> post("/api/auth/verify-otp", Map.of(
+                    "usernameOrEmail", username,
+                    "otpCode", otp), 200));
+            String token = verified.path("data").path("token").asText();
+            
+            for (int i = 0; i < authenticatedRequests; i++) {
+                run.step(AUTHENTICATED).time(() -> get("/api/articles/my-articles", token, 200));
+            }
+            run.completedFlows.incrementAndGet();
+        } catch (RuntimeException e) {
+            run.fail(username, e);
+        }
+    }
+    
+    private JsonNode post(String path, Map<String, String> body, int expectedStatus) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri(path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+            return send(request, expectedStatus);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private JsonNode get(String path, String token, int expectedStatus) {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return send(request, expectedStatus);
+    }
+    
+    private JsonNode send(HttpRequest request, int expectedStatus) {
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != expectedStatus) {
+                throw new IllegalStateException(request.method() + " " + request.uri().getPath() + " returned "
+                        + response.statusCode() + ": " + response.body());
+            }
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        }
+    }
+    
+    private String awaitOtp(String email) {
+        long deadline = System.nanoTime() + OTP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            for (MimeMessage message : greenMail.getReceivedMessagesForDomain(email)) {
+                Matcher matcher = OTP_CODE.matcher(GreenMailUtil.getBody(message));
+                if (subject(message).contains("OTP") && matcher.find()) {
+                    return matcher.group(1);
+                }
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted", e);
+            }
+        }
+        throw new IllegalStateException("No OTP email for " + email + " within " + OTP_TIMEOUT);
+    }
+    
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+    
+    private static String subject(MimeMessage message) {
+        try {
+            return String.valueOf(message.getSubject());
+        } catch (MessagingException e) {
+            return "";
+        }
+    }
+    
+    private static final class Run {
+        private final Map<String, StepStats> steps = new LinkedHashMap<>();
+        private final AtomicInteger completedFlows = new AtomicInteger();
+        private final AtomicInteger failedFlows = new AtomicInteger();
+        private final ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+        private long elapsedNanos;
+        
+        private Run() {
+            for (String step : List.of(REGISTER, LOGIN, OTP_DELIVERY, VERIFY_OTP, AUTHENTICATED)) {
+                steps.put(step, new StepStats(step));
+            }
+        }
+        
+        private StepStats step(String name) {
+            return steps.get(name);
+        }
+        
+        private void fail(String username, RuntimeException e) {
+            failedFlows.incrementAndGet();
+            if (errors.size() < 5) {
+                errors.add(username + ": " + e.getMessage());
+            }
+        }
+        
+        private String firstErrors() {
+            return String.join("; ", errors);
+        }
+        
+        private String report() {
+            double seconds = elapsedNanos / 1e9;
+            StringBuilder report = new StringBuilder(String.format(
+                    "%-22s %8s %8s %10s %8s %8s %8s %8s%n",
+                    "step", "count", "errors", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+            for (StepStats step : steps.values()) {
+                report.append(String.format("%-22s %8d %8d %10.1f %8d %8d %8d %8d%n",
+                        step.name, step.count(), step.errors.get(), step.count() / seconds,
+                        step.percentileMillis(50), step.percentileMillis(95), step.percentileMillis(99),
+                        step.percentileMillis(100)));
+            }
+            report.append(String.format("%d flows completed in %.1f s (%.1f flows/s), %d failed",
+                    completedFlows.get(), seconds, completedFlows.get() / seconds, failedFlows.get()));
+            return report.toString();
+        }
+    }
+    
+    private static final class StepStats {
+        private final String name;
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger errors = new AtomicInteger();
+        
+        private StepStats(String name) {
+            this.name = name;
+        }
+        
+        private <T> T time(Supplier<T> step) {
+            long start = System.nanoTime();
+            try {
+                T result = step.get();
+                latencies.add(System.nanoTime() - start);
+                return result;
+            } catch (RuntimeException e) {
+                errors.incrementAndGet();
+                throw e;
+            }
+        }
+        
+        private int count() {
+            return latencies.size();
+        }
+        
+        // Nearest-rank percentile
+        private long percentileMillis(int percentile) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, rank - 1)]);
+        }
+    }
+}
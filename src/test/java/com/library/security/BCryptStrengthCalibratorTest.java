@@ -0,0 +1,36 @@
+package com.library.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptStrengthCalibratorTest {
+    
+    @Test
+    void testEachStepDoublesPredictedTime() {
+        // 10 ms at strength 10: 20 ms at 11, 40 at 12, 80 at 13, 160 at 14
+        assertEquals(13, BCryptStrengthCalibrator.strengthFor(100_000_000L, 10_000_000L, 10, 16));
+        assertEquals(14, BCryptStrengthCalibrator.strengthFor(160_000_000L, 10_000_000L, 10, 16));
+    }
+    
+    @Test
+    void testStrengthStaysWithinBounds() {
+        assertEquals(10, BCryptStrengthCalibrator.strengthFor(1L, 10_000_000L, 10, 16));
+        assertEquals(16, BCryptStrengthCalibrator.strengthFor(Long.MAX_VALUE, 10_000_000L, 10, 16));
+    }
+    
+    @Test
+    void testCalibrateOnThisMachine() {
+        assertEquals(4, BCryptStrengthCalibrator.calibrate(Duration.ZERO, 4, 6));
+        int strength = BCryptStrengthCalibrator.calibrate(Duration.ofMillis(50), 4, 31);
+        assertTrue(strength >= 4 && strength < 31);
+    }
+    
+    @Test
+    void testInvalidRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> BCryptStrengthCalibrator.calibrate(Duration.ofMillis(100), 12, 10));
+    }
+}
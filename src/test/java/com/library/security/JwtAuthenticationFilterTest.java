@@ -0,0 +1,133 @@
+package com.library.security;
+
+import com.library.service.SecurityVersionService;
+import com.library.service.TokenRevocationService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+    
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @Mock
+    private UserDetailsService userDetailsService;
+    
+    @Mock
+    private SecurityVersionService securityVersionService;
+    
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    
+    @Mock
+    private FilterChain filterChain;
+    
+    @InjectMocks
+    private JwtAuthenticationFilter filter;
+    
+    private MockHttpServletRequest request;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", true);
+        request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void testPrincipalIsBuiltFromClaimsWithoutUserLookup() throws Exception {
+        when(verifiedTokenCache.verify("token")).thenReturn(claims(2L));
+        when(securityVersionService.getVersion(1L)).thenReturn(2L);
+        
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("editor", authentication.getName());
+        assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_EDITOR")));
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain, times(1)).doFilter(any(), any());
+    }
+    
+    @Test
+    void testStaleSecurityVersionIsRejected() throws Exception {
+        when(verifiedTokenCache.verify("token")).thenReturn(claims(1L));
+        when(securityVersionService.getVersion(1L)).thenReturn(2L);
+        
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userDetailsService);
+    }
+    
+    @Test
+    void testRevokedTokenIsRejected() throws Exception {
+        when(verifiedTokenCache.verify("token")).thenReturn(claims(2L));
+        when(tokenRevocationService.isRevoked("jti")).thenReturn(true);
+        
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(securityVersionService, userDetailsService);
+        verify(filterChain, times(1)).doFilter(any(), any());
+    }
+    
+    @Test
+    void testDeletedUserIsRejected() throws Exception {
+        when(verifiedTokenCache.verify("token")).thenReturn(claims(1L));
+        when(securityVersionService.getVersion(1L)).thenReturn(null);
+        
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+    
+    @Test
+    void testTokenWithoutSecurityVersionLoadsUser() throws Exception {
+        when(verifiedTokenCache.verify("token")).thenReturn(claims(null));
+        when(userDetailsService.loadUserByUsername(anyString()))
+                .thenReturn(User.withUsername("editor").password("x").roles("EDITOR").build());
+        
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, times(1)).loadUserByUsername("editor");
+        verifyNoInteractions(securityVersionService);
+    }
+    
+    private JwtClaims claims(Long securityVersion) {
+        return JwtClaims.builder()
+                .tokenId("jti")
+                .subject("editor")
+                .userId(1L)
+                .role("EDITOR")
+                .securityVersion(securityVersion)
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.library.security;
+
+import com.library.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private PasswordHashingExecutor executor;
+    
+    @BeforeEach
+    void setUp() {
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(executor, "threads", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "maxWait", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(executor, "retryAfter", Duration.ofSeconds(2));
+        executor.start();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.stop();
+    }
+    
+    @Test
+    void testWorkRunsOnHashingThreadAndIsTimed() {
+        String thread = executor.execute("encode", () -> Thread.currentThread().getName());
+        
+        assertTrue(thread.startsWith("password-hashing-"));
+        assertEquals(1, meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count());
+    }
+    
+    @Test
+    void testSaturatedPoolFailsFast() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(() -> executor.execute("matches", () -> {
+            started.countDown();
+            await(release);
+            return true;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.execute("matches", () -> true));
+        while (meterRegistry.get("password.hashing.queue").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+        
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+            () -> executor.execute("matches", () -> true));
+        assertEquals(Duration.ofSeconds(2), ex.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+        
+        release.countDown();
+        assertTrue(busy.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void testWaitBeyondLimitFails() {
+        ReflectionTestUtils.setField(executor, "maxWait", Duration.ofMillis(50));
+        
+        assertThrows(ServiceOverloadedException.class, () -> executor.execute("encode", () -> {
+            sleep(500);
+            return "hash";
+        }));
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
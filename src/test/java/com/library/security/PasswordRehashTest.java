@@ -0,0 +1,128 @@
+package com.library.security;
+
+import com.library.config.SecurityConfig;
+import com.library.domain.entity.User;
+import com.library.domain.enums.Role;
+import com.library.repository.UserRepository;
+import com.library.service.UserLookupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PasswordRehashTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private UserLookupService userLookupService;
+    
+    @Mock
+    private UserDetailsCache userDetailsCache;
+    
+    @InjectMocks
+    private CustomUserDetailsService userDetailsService;
+    
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private SecurityConfig securityConfig;
+    private PasswordEncoder passwordEncoder;
+    private DaoAuthenticationProvider authenticationProvider;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        
+        passwordHashingExecutor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(passwordHashingExecutor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(passwordHashingExecutor, "threads", 1);
+        ReflectionTestUtils.setField(passwordHashingExecutor, "queueCapacity", 4);
+        ReflectionTestUtils.setField(passwordHashingExecutor, "maxWait", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(passwordHashingExecutor, "retryAfter", Duration.ofSeconds(1));
+        passwordHashingExecutor.start();
+        
+        securityConfig = new SecurityConfig();
+        ReflectionTestUtils.setField(securityConfig, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(securityConfig, "passwordHashingExecutor", passwordHashingExecutor);
+        ReflectionTestUtils.setField(securityConfig, "bcryptStrength", 5);
+        passwordEncoder = securityConfig.passwordEncoder();
+        authenticationProvider = securityConfig.authenticationProvider();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.stop();
+    }
+    
+    @Test
+    void testCalibrationNeverOverridesConfiguredStrength() {
+        ReflectionTestUtils.setField(securityConfig, "calibrate", true);
+        ReflectionTestUtils.setField(securityConfig, "targetLatency", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(securityConfig, "minStrength", 4);
+        ReflectionTestUtils.setField(securityConfig, "maxStrength", 6);
+        
+        PasswordEncoder calibrated = securityConfig.passwordEncoder();
+        
+        assertTrue(calibrated.encode("password123").startsWith("{bcrypt}$2a$05$"));
+    }
+    
+    @Test
+    void testNewHashesCarryAlgorithmId() {
+        String hash = passwordEncoder.encode("password123");
+        
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertFalse(passwordEncoder.upgradeEncoding(hash));
+    }
+    
+    @Test
+    void testLegacyHashIsUpgradedOnLogin() {
+        User user = user(new BCryptPasswordEncoder(4).encode("password123"));
+        when(userLookupService.findByIdentifier("testuser")).thenReturn(Optional.of(user));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        
+        authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("testuser", "password123"));
+        
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(saved.capture());
+        assertTrue(saved.getValue().getPassword().startsWith("{bcrypt}$2a$05$"));
+        assertTrue(passwordEncoder.matches("password123", saved.getValue().getPassword()));
+        verify(userDetailsCache).evict("testuser");
+    }
+    
+    @Test
+    void testCurrentHashIsNotRewritten() {
+        User user = user(passwordEncoder.encode("password123"));
+        when(userLookupService.findByIdentifier("testuser")).thenReturn(Optional.of(user));
+        
+        authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("testuser", "password123"));
+        
+        verify(userRepository, never()).save(any());
+    }
+    
+    private User user(String passwordHash) {
+        return User.builder()
+                .id(1L)
+                .username("testuser")
+                .password(passwordHash)
+                .role(Role.VIEWER)
+                .enabled(true)
+                .accountLocked(false)
+                .build();
+    }
+}
@@ -0,0 +1,206 @@
+package com.library.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.fppt.jedismock.RedisServer;
+import com.library.util.ClientIpResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+    
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClientIpResolver clientIpResolver = new ClientIpResolver();
+    private RateLimitFilter rateLimitFilter;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        rateLimitFilter = filter(redisTemplate, "local");
+    }
+    
+    @Test
+    void testRequestsOverLimitAreRejected() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, request("10.0.0.1").getStatus());
+        }
+        
+        MockHttpServletResponse response = request("10.0.0.1");
+        
+        assertEquals(429, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Rate limit exceeded"));
+        assertEquals(1.0, meterRegistry.get("rate.limit.rejected").counter().count());
+        // Other clients have their own bucket
+        assertEquals(200, request("10.0.0.2").getStatus());
+    }
+    
+    @Test
+    void testBucketCountIsBounded() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            request("10.1." + (i / 256) + "." + (i % 256));
+        }
+        
+        // Evictions run asynchronously; settle them before reading the size
+        Cache<?, ?> cache = (Cache<?, ?>) ReflectionTestUtils.getField(rateLimitFilter, "cache");
+        cache.cleanUp();
+        
+        assertTrue(meterRegistry.get("cache.size").tag("cache", RateLimitFilter.CACHE_NAME).gauge().value() <= 100);
+        assertTrue(meterRegistry.get("cache.evictions").tag("cache", RateLimitFilter.CACHE_NAME)
+                .functionCounter().count() >= 900);
+    }
+    
+    @Test
+    void testForwardedForIsIgnoredFromUntrustedPeer() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, request("10.0.0.1", "198.51.100." + i).getStatus());
+        }
+        
+        assertEquals(429, request("10.0.0.1", "198.51.100.99").getStatus());
+    }
+    
+    @Test
+    void testTrustedProxyContributesOnlyItsOwnEntry() throws Exception {
+        ReflectionTestUtils.setField(clientIpResolver, "trustedProxies", Collections.singletonList("10.0.0.254"));
+        
+        // Entries left of the proxy's are chosen by the client
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, request("10.0.0.254", "198.51.100." + i + ", 203.0.113.7").getStatus());
+        }
+        
+        assertEquals(429, request("10.0.0.254", "198.51.100.99, 203.0.113.7").getStatus());
+        assertEquals(200, request("10.0.0.254", "203.0.113.8").getStatus());
+    }
+    
+    @Test
+    void testRedisBucketIsSharedAcrossNodes() throws Exception {
+        ReflectionTestUtils.setField(rateLimitFilter, "store", "redis");
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(0L, -1L);
+        
+        assertEquals(200, request("10.0.0.1").getStatus());
+        assertEquals(429, request("10.0.0.1").getStatus());
+        
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class),
+                eq(Collections.singletonList("rate-limit:10.0.0.1")), eq("3"), eq("60000"));
+    }
+    
+    @Test
+    void testRedisScriptSharesOneBucketAcrossFilters() throws Exception {
+        RedisServer server = RedisServer.newRedisServer(0);
+        server.start();
+        LettuceConnectionFactory connectionFactory =
+                new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", server.getBindPort()));
+        try {
+            connectionFactory.afterPropertiesSet();
+            StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+            RateLimitFilter node1 = filter(template, "redis");
+            RateLimitFilter node2 = filter(template, "redis");
+            
+            assertEquals(200, request(node1, "10.0.0.1").getStatus());
+            assertEquals(200, request(node2, "10.0.0.1").getStatus());
+            assertEquals(200, request(node1, "10.0.0.1").getStatus());
+            assertEquals(429, request(node2, "10.0.0.1").getStatus());
+            assertEquals(429, request(node1, "10.0.0.1").getStatus());
+            assertEquals("0", template.opsForHash().get("rate-limit:10.0.0.1", "tokens"));
+            
+            // Move the last refill a full period into the past instead of waiting for it
+            String refilledAt = (String) template.opsForHash().get("rate-limit:10.0.0.1", "refilled_at");
+            template.opsForHash().put("rate-limit:10.0.0.1", "refilled_at",
+                    String.valueOf(Long.parseLong(refilledAt) - Duration.ofMinutes(1).toMillis()));
+            
+            assertEquals(200, request(node2, "10.0.0.1").getStatus());
+            assertEquals("2", template.opsForHash().get("rate-limit:10.0.0.1", "tokens"));
+        } finally {
+            connectionFactory.destroy();
+            server.stop();
+        }
+    }
+    
+    @Test
+    void testRedisOutageFallsBackToLocalBuckets() throws Exception {
+        ReflectionTestUtils.setField(rateLimitFilter, "store", "redis");
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, request("10.0.0.1").getStatus());
+        }
+        assertEquals(429, request("10.0.0.1").getStatus());
+        
+        // Redis is not retried until the retry interval has passed
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any());
+        assertEquals(1.0, meterRegistry.get("rate.limit.redis.errors").counter().count());
+    }
+    
+    @Test
+    void testDisabledFilterPassesEverything() throws Exception {
+        ReflectionTestUtils.setField(rateLimitFilter, "rateLimitEnabled", false);
+        
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, request("10.0.0.1").getStatus());
+        }
+    }
+    
+    private RateLimitFilter filter(StringRedisTemplate template, String store) {
+        RateLimitFilter filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "redisTemplate", template);
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "clientIpResolver", clientIpResolver);
+        ReflectionTestUtils.setField(filter, "store", store);
+        ReflectionTestUtils.setField(filter, "keyPrefix", "rate-limit:");
+        ReflectionTestUtils.setField(filter, "redisRetryInterval", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(filter, "rateLimitEnabled", true);
+        ReflectionTestUtils.setField(filter, "requestsPerMinute", 3);
+        ReflectionTestUtils.setField(filter, "maxBuckets", 100L);
+        ReflectionTestUtils.setField(filter, "bucketIdleTimeout", Duration.ofMinutes(1));
+        filter.init();
+        return filter;
+    }
+    
+    private MockHttpServletResponse request(String clientIp) throws Exception {
+        return request(clientIp, null);
+    }
+    
+    private MockHttpServletResponse request(String remoteAddress, String forwardedFor) throws Exception {
+        return request(rateLimitFilter, remoteAddress, forwardedFor);
+    }
+    
+    private static MockHttpServletResponse request(RateLimitFilter filter, String clientIp) throws Exception {
+        return request(filter, clientIp, null);
+    }
+    
+    private static MockHttpServletResponse request(RateLimitFilter filter, String remoteAddress, String forwardedFor)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/articles");
+        request.setRemoteAddr(remoteAddress);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,155 @@
+package com.library.security;
+
+import com.library.domain.entity.User;
+import com.library.domain.enums.Role;
+import com.library.repository.UserRepository;
+import com.library.service.UserLookupService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserDetailsCacheTest {
+    
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @InjectMocks
+    private UserDetailsCache userDetailsCache;
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private UserLookupService userLookupService;
+    
+    private CustomUserDetailsService userDetailsService;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userDetailsCache, "enabled", true);
+        ReflectionTestUtils.setField(userDetailsCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(userDetailsCache, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(userDetailsCache, "channel", "user-details:invalidate");
+        // Subscribing needs a live connection; these tests only cover publishing
+        ReflectionTestUtils.setField(userDetailsCache, "broadcast", false);
+        userDetailsCache.init();
+        ReflectionTestUtils.setField(userDetailsCache, "broadcast", true);
+        
+        userDetailsService = new CustomUserDetailsService();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userDetailsService, "userLookupService", userLookupService);
+        ReflectionTestUtils.setField(userDetailsService, "userDetailsCache", userDetailsCache);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void testRepeatedLoadsHitTheCache() {
+        when(userLookupService.findByIdentifier("testuser")).thenReturn(Optional.of(user(false)));
+        
+        userDetailsService.loadUserByUsername("testuser");
+        UserDetails second = userDetailsService.loadUserByUsername("TestUser");
+        
+        assertEquals("testuser", second.getUsername());
+        verify(userLookupService, times(1)).findByIdentifier(anyString());
+        assertEquals(0.5, meterRegistry.get("user.details.cache.hit.ratio").gauge().value());
+    }
+    
+    @Test
+    void testErasedCredentialsDoNotReachTheCache() {
+        when(userLookupService.findByIdentifier("testuser")).thenReturn(Optional.of(user(false)));
+        
+        ((CredentialsContainer) userDetailsService.loadUserByUsername("testuser")).eraseCredentials();
+        UserDetails cached = userDetailsService.loadUserByUsername("testuser");
+        ((CredentialsContainer) cached).eraseCredentials();
+        
+        assertEquals("{bcrypt}hash", userDetailsService.loadUserByUsername("testuser").getPassword());
+    }
+    
+    @Test
+    void testLockedUsersAndEmailsAreNotCached() {
+        when(userLookupService.findByIdentifier("testuser")).thenReturn(Optional.of(user(true)));
+        when(userLookupService.findByIdentifier("test@example.com")).thenReturn(Optional.of(user(true)));
+        
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.loadUserByUsername("test@example.com");
+        
+        verify(userLookupService, times(2)).findByIdentifier("testuser");
+        assertNull(userDetailsCache.get("test@example.com"));
+    }
+    
+    @Test
+    void testEvictWaitsForCommitAndNotifiesOtherNodes() {
+        userDetailsCache.put(details());
+        TransactionSynchronizationManager.initSynchronization();
+        
+        userDetailsCache.evict("TestUser");
+        
+        assertNotNull(userDetailsCache.get("testuser"));
+        verifyNoInteractions(redisTemplate);
+        
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        
+        assertNull(userDetailsCache.get("testuser"));
+        verify(redisTemplate).convertAndSend("user-details:invalidate", "testuser");
+    }
+    
+    @Test
+    void testEvictSurvivesRedisOutage() {
+        userDetailsCache.put(details());
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenThrow(new IllegalStateException("down"));
+        
+        assertDoesNotThrow(() -> userDetailsCache.evict("testuser"));
+        assertNull(userDetailsCache.get("testuser"));
+    }
+    
+    private static UserDetails details() {
+        return org.springframework.security.core.userdetails.User.withUsername("testuser")
+                .password("{bcrypt}hash")
+                .roles("VIEWER")
+                .build();
+    }
+    
+    private static User user(boolean locked) {
+        return User.builder()
+                .id(1L)
+                .username("testuser")
+                .email("test@example.com")
+                .password("{bcrypt}hash")
+                .role(Role.VIEWER)
+                .enabled(true)
+                .accountLocked(locked)
+                .lockedUntil(locked ? LocalDateTime.now().plusMinutes(30) : null)
+                .build();
+    }
+}
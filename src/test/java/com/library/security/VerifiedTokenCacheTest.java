@@ -0,0 +1,75 @@
+package com.library.security;
+
+import com.library.util.JwtUtil;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+    
+    @Mock
+    private JwtUtil jwtUtil;
+    
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @InjectMocks
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(verifiedTokenCache, "enabled", true);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxSize", 100L);
+        verifiedTokenCache.init();
+    }
+    
+    @Test
+    void testRepeatedTokenIsVerifiedOnce() {
+        JwtClaims claims = claims(Instant.now().plusSeconds(60));
+        when(jwtUtil.verify("token")).thenReturn(claims);
+        
+        assertSame(claims, verifiedTokenCache.verify("token"));
+        assertSame(claims, verifiedTokenCache.verify("token"));
+        
+        verify(jwtUtil, times(1)).verify("token");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", VerifiedTokenCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+    }
+    
+    @Test
+    void testExpiredEntryIsVerifiedAgain() {
+        when(jwtUtil.verify("token")).thenReturn(claims(Instant.now().minusSeconds(1)));
+        
+        verifiedTokenCache.verify("token");
+        verifiedTokenCache.verify("token");
+        
+        verify(jwtUtil, times(2)).verify("token");
+    }
+    
+    @Test
+    void testRejectedTokenIsNotCached() {
+        when(jwtUtil.verify("forged")).thenThrow(new MalformedJwtException("bad"));
+        
+        assertThrows(MalformedJwtException.class, () -> verifiedTokenCache.verify("forged"));
+        assertThrows(MalformedJwtException.class, () -> verifiedTokenCache.verify("forged"));
+        
+        verify(jwtUtil, times(2)).verify("forged");
+    }
+    
+    private JwtClaims claims(Instant expiresAt) {
+        return JwtClaims.builder().subject("editor").expiresAt(expiresAt).build();
+    }
+}
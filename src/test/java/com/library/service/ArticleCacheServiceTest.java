@@ -0,0 +1,59 @@
+package com.library.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ArticleCacheServiceTest {
+    
+    @Mock
+    private CacheManager cacheManager;
+    
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    
+    @InjectMocks
+    private ArticleCacheService articleCacheService;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+    
+    @Test
+    void testEvictArticlesUsesOneMultiKeyDelete() {
+        RedisCache articles = mock(RedisCache.class);
+        when(articles.getCacheConfiguration()).thenReturn(RedisCacheConfiguration.defaultCacheConfig());
+        when(cacheManager.getCache(ArticleCacheService.ARTICLES_CACHE)).thenReturn(articles);
+        
+        articleCacheService.evictArticles(Arrays.asList(1L, 2L, 3L));
+        
+        verify(redisTemplate, times(1)).delete(Arrays.asList("articles::1", "articles::2", "articles::3"));
+        verify(articles, never()).evict(any());
+    }
+    
+    @Test
+    void testEvictArticlesFallsBackToPerKeyEvictForOtherCaches() {
+        Cache articles = mock(Cache.class);
+        when(cacheManager.getCache(ArticleCacheService.ARTICLES_CACHE)).thenReturn(articles);
+        
+        articleCacheService.evictArticles(Arrays.asList(1L, 2L));
+        
+        verify(articles).evict(1L);
+        verify(articles).evict(2L);
+        verify(redisTemplate, never()).delete(anyCollection());
+    }
+}
@@ -0,0 +1,152 @@
+package com.library.service;
+
+import com.library.repository.ArticleRepository;
+import com.library.util.HashedTimingWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ArticlePublicationServiceTest {
+    
+    @Mock
+    private ArticleRepository articleRepository;
+    
+    @Mock
+    private ArticleStatisticsService articleStatisticsService;
+    
+    @Mock
+    private ArticleCacheService articleCacheService;
+    
+    @Mock
+    private LeaseService leaseService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @InjectMocks
+    private ArticlePublicationService articlePublicationService;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(articlePublicationService, "enabled", true);
+        ReflectionTestUtils.setField(articlePublicationService, "horizon", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(articlePublicationService, "leaseTtl", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(articlePublicationService, "retryDelay", Duration.ofSeconds(2));
+        // Drive the wheel directly instead of starting the timer thread
+        ReflectionTestUtils.setField(articlePublicationService, "wheel",
+                new HashedTimingWheel<Long>(Duration.ofMillis(100), 64, System.currentTimeMillis()));
+    }
+    
+    @Test
+    void testPublishDueUsesOneBatchedUpdate() {
+        List<Long> due = Arrays.asList(1L, 2L, 3L);
+        when(articleRepository.findDuePublicationIds(any())).thenReturn(due);
+        when(articleRepository.publishDue(eq(due), any())).thenReturn(3);
+        
+        int published = articlePublicationService.publishDue();
+        
+        assertEquals(3, published);
+        verify(articleRepository, times(1)).publishDue(eq(due), any());
+        verify(articleStatisticsService, times(1)).recordVisibilityChange(false, true, 3);
+        verify(articleCacheService, times(1)).evictArticles(due);
+    }
+    
+    @Test
+    void testPublishDueWithNothingDueSkipsUpdate() {
+        when(articleRepository.findDuePublicationIds(any())).thenReturn(Collections.emptyList());
+        
+        assertEquals(0, articlePublicationService.publishDue());
+        verify(articleRepository, never()).publishDue(any(), any());
+        verifyNoInteractions(articleCacheService);
+    }
+    
+    @Test
+    void testExpiredTimerPublishesUnderLease() {
+        when(leaseService.tryAcquire(eq(ArticlePublicationService.LEASE_NAME), any())).thenReturn("token");
+        when(articleRepository.findDuePublicationIds(any())).thenReturn(Collections.singletonList(1L));
+        when(articleRepository.publishDue(any(), any())).thenReturn(1);
+        
+        articlePublicationService.schedule(1L, LocalDateTime.now().minusSeconds(1));
+        articlePublicationService.onTick();
+        
+        verify(articleRepository, times(1)).publishDue(any(), any());
+        verify(leaseService, times(1)).release(ArticlePublicationService.LEASE_NAME, "token");
+    }
+    
+    @Test
+    void testExpiredTimerWithoutLeaseRetriesLater() {
+        when(leaseService.tryAcquire(anyString(), any())).thenReturn(null);
+        
+        articlePublicationService.schedule(1L, LocalDateTime.now().minusSeconds(1));
+        articlePublicationService.onTick();
+        articlePublicationService.onTick();
+        
+        verify(leaseService, times(1)).tryAcquire(anyString(), any());
+        verifyNoInteractions(articleRepository);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRetryDoesNotAddTimerForRescheduledArticle() {
+        when(leaseService.tryAcquire(anyString(), any())).thenReturn(null);
+        HashedTimingWheel<Long> wheel = spy(new HashedTimingWheel<Long>(Duration.ofMillis(100), 64,
+                System.currentTimeMillis()));
+        ReflectionTestUtils.setField(articlePublicationService, "wheel", wheel);
+        articlePublicationService.schedule(1L, LocalDateTime.now().minusSeconds(1));
+        // Rescheduled while the old timer was already firing
+        Map<Long, HashedTimingWheel.Timeout<Long>> scheduled = (Map<Long, HashedTimingWheel.Timeout<Long>>)
+                ReflectionTestUtils.getField(articlePublicationService, "scheduled");
+        scheduled.put(1L, wheel.schedule(1L, System.currentTimeMillis() + 60_000));
+        
+        articlePublicationService.onTick();
+        
+        verify(wheel, times(2)).schedule(eq(1L), anyLong());
+    }
+    
+    @Test
+    void testTimerIsAddedOnlyAfterCommit() {
+        when(leaseService.tryAcquire(anyString(), any())).thenReturn(null);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            articlePublicationService.schedule(1L, LocalDateTime.now().minusSeconds(1));
+            articlePublicationService.onTick();
+            verifyNoInteractions(leaseService);
+            
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        articlePublicationService.onTick();
+        
+        verify(leaseService, times(1)).tryAcquire(anyString(), any());
+    }
+    
+    @Test
+    void testPublicationBeyondHorizonIsLeftToLoader() {
+        articlePublicationService.schedule(1L, LocalDateTime.now().plusHours(1));
+        articlePublicationService.onTick();
+        
+        verifyNoInteractions(leaseService, articleRepository);
+    }
+}
@@ -0,0 +1,126 @@
+package com.library.service;
+
+import com.library.repository.ArticleAttachmentRepository;
+import com.library.repository.ArticleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ArticlePurgeServiceTest {
+    
+    @Mock
+    private ArticleRepository articleRepository;
+    
+    @Mock
+    private ArticleAttachmentRepository attachmentRepository;
+    
+    @Mock
+    private AttachmentBlobService blobService;
+    
+    @Mock
+    private LeaseService leaseService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @InjectMocks
+    private ArticlePurgeService articlePurgeService;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(articlePurgeService, "enabled", true);
+        ReflectionTestUtils.setField(articlePurgeService, "gracePeriod", Duration.ofHours(1));
+        ReflectionTestUtils.setField(articlePurgeService, "chunkSize", 2);
+        ReflectionTestUtils.setField(articlePurgeService, "maxChunksPerRun", 3);
+        ReflectionTestUtils.setField(articlePurgeService, "pauseBetweenChunks", Duration.ZERO);
+    }
+    
+    @Test
+    void testPurgeRunsInChunksUntilBacklogIsEmpty() {
+        List<Long> firstChunk = Arrays.asList(1L, 2L);
+        List<Long> lastChunk = Collections.singletonList(3L);
+        when(articleRepository.findPurgeableIds(any(), anyInt())).thenReturn(firstChunk, lastChunk);
+        when(articleRepository.purgeByIds(firstChunk)).thenReturn(2);
+        when(articleRepository.purgeByIds(lastChunk)).thenReturn(1);
+        
+        int purged = articlePurgeService.purge();
+        
+        assertEquals(3, purged);
+        verify(articleRepository, times(2)).findPurgeableIds(any(), eq(2));
+        verify(attachmentRepository, times(1)).deleteByArticleIdIn(firstChunk);
+        verify(attachmentRepository, times(1)).deleteByArticleIdIn(lastChunk);
+        verify(transactionManager, times(2)).commit(any());
+    }
+    
+    @Test
+    void testPurgeStopsAtMaxChunksPerRun() {
+        List<Long> chunk = Arrays.asList(1L, 2L);
+        when(articleRepository.findPurgeableIds(any(), anyInt())).thenReturn(chunk);
+        when(articleRepository.purgeByIds(chunk)).thenReturn(2);
+        
+        int purged = articlePurgeService.purge();
+        
+        assertEquals(6, purged);
+        verify(articleRepository, times(3)).purgeByIds(chunk);
+    }
+    
+    @Test
+    void testPurgeReleasesBlobsAfterDeletingAttachments() {
+        List<Long> ids = Collections.singletonList(1L);
+        List<String> blobs = Arrays.asList("shared", "orphan");
+        when(articleRepository.findPurgeableIds(any(), anyInt())).thenReturn(ids);
+        when(articleRepository.purgeByIds(ids)).thenReturn(1);
+        when(attachmentRepository.findDistinctSha256ByArticleIdIn(ids)).thenReturn(blobs);
+        
+        articlePurgeService.purge();
+        
+        InOrder inOrder = inOrder(attachmentRepository, blobService);
+        inOrder.verify(attachmentRepository).deleteByArticleIdIn(ids);
+        inOrder.verify(blobService).releaseUnreferenced(blobs);
+    }
+    
+    @Test
+    void testScheduledPurgeRunsOnlyWithLease() {
+        when(leaseService.tryAcquire(anyString(), any())).thenReturn(null);
+        
+        articlePurgeService.scheduledPurge();
+        
+        verifyNoInteractions(articleRepository, attachmentRepository, blobService);
+    }
+    
+    @Test
+    void testScheduledPurgeReleasesLease() {
+        when(leaseService.tryAcquire(anyString(), any())).thenReturn("token");
+        when(articleRepository.findPurgeableIds(any(), anyInt())).thenReturn(Collections.emptyList());
+        
+        articlePurgeService.scheduledPurge();
+        
+        verify(leaseService).release("article-purge", "token");
+    }
+    
+    @Test
+    void testDisabledPurgeDoesNothing() {
+        ReflectionTestUtils.setField(articlePurgeService, "enabled", false);
+        
+        articlePurgeService.scheduledPurge();
+        
+        verifyNoInteractions(articleRepository, attachmentRepository, blobService, leaseService);
+    }
+}
@@ -2,25 +2,40 @@ package com.library.service;
 
 import com.library.domain.entity.Article;
 import com.library.domain.entity.User;
+import com.library.domain.enums.AuditAction;
+import com.library.domain.enums.BulkArticleOperation;
 import com.library.domain.enums.Role;
+import com.library.dto.request.ArticlePatchRequest;
 import com.library.dto.request.ArticleRequest;
+import com.library.dto.request.BulkArticleRequest;
 import com.library.dto.response.ArticleResponse;
+import com.library.dto.response.BulkArticleResponse;
 import com.library.exception.ResourceNotFoundException;
 import com.library.exception.UnauthorizedException;
 import com.library.repository.ArticleRepository;
+import com.library.repository.ArticleSummary;
 import com.library.util.BubbleSortUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ArticleServiceTest {
@@ -37,6 +52,15 @@ class ArticleServiceTest {
     @Mock
     private BubbleSortUtil bubbleSortUtil;
     
+    @Mock
+    private ArticleStatisticsService articleStatisticsService;
+    
+    @Mock
+    private ArticlePublicationService articlePublicationService;
+    
+    @Spy
+    private ArticleCacheService articleCacheService = new ArticleCacheService();
+    
     @InjectMocks
     private ArticleService articleService;
     
@@ -49,6 +73,8 @@ class ArticleServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(articleCacheService, "cacheManager", new ConcurrentMapCacheManager());
+        ReflectionTestUtils.setField(articleService, "bulkChunkSize", 2);
         
         viewerUser = User.builder().id(1L).username("viewer").role(Role.VIEWER).build();
         contributorUser = User.builder().id(2L).username("contributor").role(Role.CONTRIBUTOR).build();
@@ -99,6 +125,47 @@ class ArticleServiceTest {
         verify(auditLogService, times(1)).logArticleAction(any(), anyLong(), anyString(), anyLong(), anyString());
     }
     
+    @Test
+    void testGetArticleByIdCachedStillChecksPermission() {
+        Article privateArticle = Article.builder()
+                .id(5L)
+                .title("Private Article")
+                .content("Private Content")
+                .authorId(2L)
+                .isPublic(false)
+                .build();
+        
+        when(userService.getUserEntityByUsername("admin")).thenReturn(superAdminUser);
+        when(userService.getUserEntityByUsername("viewer")).thenReturn(viewerUser);
+        when(articleRepository.findByIdWithAuthor(5L)).thenReturn(Optional.of(privateArticle));
+        
+        articleService.getArticleById(5L, "admin");
+        
+        assertThrows(UnauthorizedException.class, 
+            () -> articleService.getArticleById(5L, "viewer"));
+        verify(articleRepository, times(1)).findByIdWithAuthor(5L);
+    }
+    
+    @Test
+    void testGetAllArticlesPartitionedByRole() {
+        Article privateArticle = Article.builder()
+                .id(5L)
+                .title("Private Article")
+                .authorId(2L)
+                .isPublic(false)
+                .build();
+        
+        when(userService.getUserEntityByUsername("admin")).thenReturn(superAdminUser);
+        when(userService.getUserEntityByUsername("viewer")).thenReturn(viewerUser);
+        when(articleRepository.findAll()).thenReturn(Arrays.asList(article, privateArticle));
+        when(articleRepository.findAllPublicArticles()).thenReturn(Arrays.asList(article));
+        
+        assertEquals(2, articleService.getAllArticles("admin").size());
+        assertEquals(1, articleService.getAllArticles("viewer").size());
+        assertEquals(2, articleService.getAllArticles("admin").size());
+        verify(articleRepository, times(1)).findAll();
+    }
+    
     @Test
     void testGetArticleByIdNotFound() {
         when(userService.getUserEntityByUsername("viewer")).thenReturn(viewerUser);
@@ -123,9 +190,34 @@ class ArticleServiceTest {
         
         assertNotNull(response);
         verify(articleRepository, times(1)).save(any(Article.class));
+        verify(articleStatisticsService, times(1)).recordCreated(article);
         verify(auditLogService, times(1)).logArticleAction(any(), anyLong(), anyString(), anyLong(), anyString());
     }
     
+    @Test
+    void testCreateScheduledArticleStaysPrivateUntilPublishAt() {
+        LocalDateTime publishAt = LocalDateTime.now().plusHours(1);
+        ArticleRequest request = ArticleRequest.builder()
+                .title("New Article")
+                .content("New Content")
+                .isPublic(true)
+                .publishAt(publishAt)
+                .build();
+        
+        when(userService.getUserEntityByUsername("contributor")).thenReturn(contributorUser);
+        when(articleRepository.save(any(Article.class))).thenAnswer(inv -> {
+            Article saved = inv.getArgument(0);
+            saved.setId(5L);
+            return saved;
+        });
+        
+        ArticleResponse response = articleService.createArticle(request, "contributor");
+        
+        assertFalse(response.getIsPublic());
+        assertEquals(publishAt, response.getPublishAt());
+        verify(articlePublicationService, times(1)).schedule(5L, publishAt);
+    }
+    
     @Test
     void testCreateArticleAsViewer() {
         ArticleRequest request = ArticleRequest.builder()
@@ -190,7 +282,11 @@ class ArticleServiceTest {
         
         articleService.deleteArticle(1L, "editor");
         
-        verify(articleRepository, times(1)).delete(any(Article.class));
+        assertTrue(editorArticle.getDeleted());
+        assertNotNull(editorArticle.getDeletedAt());
+        verify(articleRepository, times(1)).save(editorArticle);
+        verify(articleRepository, never()).delete(any(Article.class));
+        verify(articleStatisticsService, times(1)).recordDeleted(editorArticle);
         verify(auditLogService, times(1)).logArticleAction(any(), anyLong(), anyString(), anyLong(), anyString());
     }
     
@@ -209,6 +305,144 @@ class ArticleServiceTest {
             () -> articleService.deleteArticle(1L, "contributor"));
     }
     
+    @Test
+    void testBulkUnpublishAsOwnerFiltersByAuthorInChunks() {
+        when(userService.getUserEntityByUsername("contributor")).thenReturn(contributorUser);
+        List<ArticleSummary> owned = Arrays.asList(summary(1L, 2L, true), summary(2L, 2L, false));
+        when(articleRepository.findSummariesByIdInAndAuthorId(Arrays.asList(1L, 2L), 2L)).thenReturn(owned);
+        when(articleRepository.findSummariesByIdInAndAuthorId(Arrays.asList(3L), 2L))
+                .thenReturn(Collections.emptyList());
+        
+        BulkArticleRequest request = BulkArticleRequest.builder().ids(Arrays.asList(1L, 2L, 3L, 1L)).build();
+        BulkArticleResponse response = articleService.bulkUpdate(BulkArticleOperation.UNPUBLISH, request, "contributor");
+        
+        assertEquals(3, response.getRequested());
+        assertEquals(1, response.getAffected());
+        assertEquals(Arrays.asList(3L), response.getSkippedIds());
+        verify(articleRepository, times(1)).updateVisibilityByIds(eq(Arrays.asList(1L)), eq(false), any());
+        verify(articleStatisticsService, times(1)).recordVisibilityChange(true, false, 1L);
+        verify(articleCacheService, times(1)).evictArticles(Arrays.asList(1L));
+        verify(auditLogService, times(1)).logArticleActions(eq(AuditAction.ARTICLE_UPDATED), eq(2L),
+                eq("contributor"), eq(Arrays.asList(1L)), anyString());
+        verify(articleRepository, never()).save(any());
+    }
+    
+    @Test
+    void testBulkDeleteAsSuperAdminSoftDeletesAnyArticle() {
+        when(userService.getUserEntityByUsername("admin")).thenReturn(superAdminUser);
+        List<ArticleSummary> summaries = Arrays.asList(summary(1L, 2L, true), summary(2L, 3L, false));
+        when(articleRepository.findSummariesByIdIn(Arrays.asList(1L, 2L))).thenReturn(summaries);
+        
+        BulkArticleRequest request = BulkArticleRequest.builder().ids(Arrays.asList(1L, 2L)).build();
+        BulkArticleResponse response = articleService.bulkUpdate(BulkArticleOperation.DELETE, request, "admin");
+        
+        assertEquals(2, response.getAffected());
+        verify(articleRepository, times(1)).softDeleteByIds(eq(Arrays.asList(1L, 2L)), any());
+        verify(articleStatisticsService, times(1)).recordDeleted(summaries);
+        verify(articleRepository, never()).findSummariesByIdInAndAuthorId(any(), anyLong());
+    }
+    
+    @Test
+    void testBulkDeleteAsContributorUnauthorized() {
+        when(userService.getUserEntityByUsername("contributor")).thenReturn(contributorUser);
+        BulkArticleRequest request = BulkArticleRequest.builder().ids(Arrays.asList(1L)).build();
+        
+        assertThrows(UnauthorizedException.class,
+            () -> articleService.bulkUpdate(BulkArticleOperation.DELETE, request, "contributor"));
+        verifyNoInteractions(articleRepository);
+    }
+    
+    @Test
+    void testBulkReassignRequiresAuthoringTarget() {
+        when(userService.getUserEntityByUsername("admin")).thenReturn(superAdminUser);
+        when(userService.getUserEntityById(1L)).thenReturn(viewerUser);
+        BulkArticleRequest request = BulkArticleRequest.builder().ids(Arrays.asList(1L)).newAuthorId(1L).build();
+        
+        assertThrows(IllegalArgumentException.class,
+            () -> articleService.bulkUpdate(BulkArticleOperation.REASSIGN, request, "admin"));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPatchVisibilityWritesOnlyChangedColumns() {
+        when(userService.getUserEntityByUsername("contributor")).thenReturn(contributorUser);
+        ArticleSummary current = summary(1L, 2L, false);
+        when(articleRepository.findSummaryById(1L)).thenReturn(Optional.of(current));
+        
+        ArticlePatchRequest request = new ArticlePatchRequest();
+        request.setIsPublic(true);
+        ArticleResponse response = articleService.patchArticle(1L, request, "contributor", false);
+        
+        assertNull(response);
+        ArgumentCaptor<Map<String, Object>> changes = ArgumentCaptor.forClass(Map.class);
+        verify(articleRepository).updateAttributes(eq(1L), changes.capture());
+        assertEquals(Set.of("isPublic", "updatedAt"), changes.getValue().keySet());
+        verify(articleStatisticsService).recordVisibilityChange(false, true);
+        verify(articleCacheService).evictArticle(1L, 2L, true);
+        verify(articleRepository, never()).findByIdWithAuthor(anyLong());
+    }
+    
+    @Test
+    void testPatchWithoutChangesSkipsUpdateAndEviction() {
+        when(userService.getUserEntityByUsername("contributor")).thenReturn(contributorUser);
+        ArticleSummary current = summary(1L, 2L, true);
+        when(articleRepository.findSummaryById(1L)).thenReturn(Optional.of(current));
+        
+        ArticlePatchRequest request = new ArticlePatchRequest();
+        request.setIsPublic(true);
+        articleService.patchArticle(1L, request, "contributor", false);
+        
+        verify(articleRepository, never()).updateAttributes(anyLong(), any());
+        verify(articleCacheService, never()).evictArticle(anyLong(), anyLong(), anyBoolean());
+        verifyNoInteractions(auditLogService);
+    }
+    
+    @Test
+    void testPatchPrivateArticleEvictsOnlyAuthorPartition() {
+        when(userService.getUserEntityByUsername("contributor")).thenReturn(contributorUser);
+        ArticleSummary current = summary(1L, 2L, false);
+        when(articleRepository.findSummaryById(1L)).thenReturn(Optional.of(current));
+        when(articleRepository.findByIdWithAuthor(1L)).thenReturn(Optional.of(article));
+        
+        ArticlePatchRequest request = new ArticlePatchRequest();
+        request.setTitle("Renamed");
+        articleService.patchArticle(1L, request, "contributor", true);
+        
+        verify(articleCacheService).evictArticle(1L, 2L, false);
+        verify(articleStatisticsService).recordVisibilityChange(false, false);
+    }
+    
+    @Test
+    void testPatchRejectsRemovingTitle() {
+        when(userService.getUserEntityByUsername("contributor")).thenReturn(contributorUser);
+        ArticleSummary current = summary(1L, 2L, true);
+        when(articleRepository.findSummaryById(1L)).thenReturn(Optional.of(current));
+        
+        ArticlePatchRequest request = new ArticlePatchRequest();
+        request.setTitle(null);
+        
+        assertThrows(IllegalArgumentException.class,
+            () -> articleService.patchArticle(1L, request, "contributor", false));
+    }
+    
+    @Test
+    void testPatchOtherUsersArticleUnauthorized() {
+        when(userService.getUserEntityByUsername("contributor")).thenReturn(contributorUser);
+        ArticleSummary current = summary(1L, 3L, true);
+        when(articleRepository.findSummaryById(1L)).thenReturn(Optional.of(current));
+        
+        assertThrows(UnauthorizedException.class,
+            () -> articleService.patchArticle(1L, new ArticlePatchRequest(), "contributor", false));
+    }
+    
+    private ArticleSummary summary(Long id, Long authorId, Boolean isPublic) {
+        ArticleSummary summary = mock(ArticleSummary.class);
+        when(summary.getId()).thenReturn(id);
+        when(summary.getAuthorId()).thenReturn(authorId);
+        when(summary.getIsPublic()).thenReturn(isPublic);
+        return summary;
+    }
+    
     @Test
     void testGetMyArticles() {
         when(userService.getUserEntityByUsername("contributor")).thenReturn(contributorUser);
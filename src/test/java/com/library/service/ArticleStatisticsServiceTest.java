@@ -0,0 +1,192 @@
+package com.library.service;
+
+import com.library.domain.entity.Article;
+import com.library.domain.entity.ArticleStatistic;
+import com.library.domain.enums.StatisticDimension;
+import com.library.dto.response.ArticleStatisticsResponse;
+import com.library.repository.ArticleRepository;
+import com.library.repository.ArticleStatisticRepository;
+import com.library.repository.ArticleSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ArticleStatisticsServiceTest {
+    
+    @Mock
+    private ArticleStatisticRepository statisticRepository;
+    
+    @Mock
+    private ArticleRepository articleRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Mock
+    private LeaseService leaseService;
+    
+    @InjectMocks
+    private ArticleStatisticsService articleStatisticsService;
+    
+    private Article article;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        
+        article = Article.builder()
+                .id(1L)
+                .authorId(7L)
+                .isPublic(true)
+                .createdAt(LocalDateTime.of(2024, 5, 1, 10, 0))
+                .build();
+    }
+    
+    @Test
+    void testRecordCreatedIncrementsAllDimensions() {
+        when(statisticRepository.increment(any(), anyString(), anyLong())).thenReturn(1);
+        
+        articleStatisticsService.recordCreated(article);
+        
+        verify(statisticRepository).increment(StatisticDimension.AUTHOR, "7", 1);
+        verify(statisticRepository).increment(StatisticDimension.VISIBILITY, "PUBLIC", 1);
+        verify(statisticRepository).increment(StatisticDimension.CREATED_DAY, "2024-05-01", 1);
+        verify(statisticRepository, never()).saveAndFlush(any());
+    }
+    
+    @Test
+    void testMissingCounterIsCreatedThenIncremented() {
+        when(statisticRepository.increment(any(), anyString(), anyLong())).thenReturn(1);
+        when(statisticRepository.increment(StatisticDimension.AUTHOR, "7", 1)).thenReturn(0, 1);
+        
+        articleStatisticsService.recordCreated(article);
+        
+        verify(statisticRepository, times(1)).saveAndFlush(any(ArticleStatistic.class));
+        verify(statisticRepository, times(2)).increment(StatisticDimension.AUTHOR, "7", 1);
+    }
+    
+    @Test
+    void testVisibilityChangeMovesCount() {
+        when(statisticRepository.increment(any(), anyString(), anyLong())).thenReturn(1);
+        
+        articleStatisticsService.recordVisibilityChange(true, false);
+        articleStatisticsService.recordVisibilityChange(false, false);
+        
+        verify(statisticRepository, times(1)).increment(StatisticDimension.VISIBILITY, "PUBLIC", -1);
+        verify(statisticRepository, times(1)).increment(StatisticDimension.VISIBILITY, "PRIVATE", 1);
+    }
+    
+    @Test
+    void testReassignMovesAuthorCounts() {
+        when(statisticRepository.increment(any(), anyString(), anyLong())).thenReturn(1);
+        ArticleSummary fromSeven = mock(ArticleSummary.class);
+        when(fromSeven.getAuthorId()).thenReturn(7L);
+        ArticleSummary fromEight = mock(ArticleSummary.class);
+        when(fromEight.getAuthorId()).thenReturn(8L);
+        
+        articleStatisticsService.recordReassigned(Arrays.asList(fromSeven, fromSeven, fromEight), 9L);
+        
+        verify(statisticRepository).increment(StatisticDimension.AUTHOR, "7", -2);
+        verify(statisticRepository).increment(StatisticDimension.AUTHOR, "8", -1);
+        verify(statisticRepository).increment(StatisticDimension.AUTHOR, "9", 3);
+    }
+    
+    @Test
+    void testGetStatisticsReadsCountersOnly() {
+        String today = LocalDate.now().toString();
+        when(statisticRepository.findByDimension(StatisticDimension.VISIBILITY)).thenReturn(Arrays.asList(
+                stat(StatisticDimension.VISIBILITY, "PUBLIC", 3L),
+                stat(StatisticDimension.VISIBILITY, "PRIVATE", 2L)));
+        when(statisticRepository.findByDimension(StatisticDimension.AUTHOR)).thenReturn(Arrays.asList(
+                stat(StatisticDimension.AUTHOR, "7", 5L),
+                stat(StatisticDimension.AUTHOR, "8", 0L)));
+        when(statisticRepository.findByDimensionFromKey(eq(StatisticDimension.CREATED_DAY), anyString()))
+                .thenReturn(Collections.singletonList(stat(StatisticDimension.CREATED_DAY, today, 5L)));
+        
+        ArticleStatisticsResponse response = articleStatisticsService.getStatistics(30);
+        
+        assertEquals(5, response.getTotalArticles());
+        assertEquals(3, response.getPublicArticles());
+        assertEquals(1, response.getArticlesPerAuthor().size());
+        assertEquals(5L, response.getArticlesCreatedPerDay().get(today));
+        verifyNoInteractions(articleRepository);
+    }
+    
+    @Test
+    void testReconcileRepairsDriftKeyByKey() {
+        ArticleStatistic drifted = stat(StatisticDimension.AUTHOR, "7", 9L);
+        ArticleStatistic stale = stat(StatisticDimension.AUTHOR, "8", 2L);
+        ArticleStatistic correct = stat(StatisticDimension.VISIBILITY, "PUBLIC", 4L);
+        when(statisticRepository.findAll()).thenReturn(Arrays.asList(drifted, stale, correct));
+        when(articleRepository.countGroupedByAuthor()).thenReturn(rows(new Object[]{7L, 4L}));
+        when(articleRepository.countGroupedByVisibility()).thenReturn(rows(new Object[]{true, 4L}));
+        when(articleRepository.countGroupedByCreatedDay()).thenReturn(rows(new Object[]{"2024-05-01", 4L}));
+        when(statisticRepository.findForUpdate(StatisticDimension.AUTHOR, "7")).thenReturn(Optional.of(drifted));
+        when(statisticRepository.findForUpdate(StatisticDimension.AUTHOR, "8")).thenReturn(Optional.of(stale));
+        when(statisticRepository.findForUpdate(StatisticDimension.CREATED_DAY, "2024-05-01"))
+                .thenReturn(Optional.of(stat(StatisticDimension.CREATED_DAY, "2024-05-01", 0L)));
+        when(articleRepository.countByAuthorId(7L)).thenReturn(4L);
+        when(articleRepository.countByAuthorId(8L)).thenReturn(0L);
+        when(articleRepository.countCreatedBetween(any(), any())).thenReturn(4L);
+        
+        int corrected = articleStatisticsService.reconcile();
+        
+        assertEquals(3, corrected);
+        verify(statisticRepository).increment(StatisticDimension.AUTHOR, "7", -5);
+        verify(statisticRepository).increment(StatisticDimension.AUTHOR, "8", -2);
+        verify(statisticRepository).increment(StatisticDimension.CREATED_DAY, "2024-05-01", 4);
+        // Missing counters are created through the race-safe path, never with a plain save
+        verify(statisticRepository, times(1)).saveAndFlush(any(ArticleStatistic.class));
+        verify(statisticRepository, never()).save(any(ArticleStatistic.class));
+        verify(statisticRepository, never()).findForUpdate(StatisticDimension.VISIBILITY, "PUBLIC");
+    }
+    
+    @Test
+    void testReconcileSkipsCounterThatWasOnlyInFlight() {
+        ArticleStatistic counter = stat(StatisticDimension.AUTHOR, "7", 5L);
+        when(statisticRepository.findAll()).thenReturn(Collections.singletonList(counter));
+        when(articleRepository.countGroupedByAuthor()).thenReturn(rows(new Object[]{7L, 4L}));
+        when(statisticRepository.findForUpdate(StatisticDimension.AUTHOR, "7")).thenReturn(Optional.of(counter));
+        when(articleRepository.countByAuthorId(7L)).thenReturn(5L);
+        
+        int corrected = articleStatisticsService.reconcile();
+        
+        assertEquals(0, corrected);
+        verify(statisticRepository, never()).increment(any(), anyString(), anyLong());
+    }
+    
+    @Test
+    void testScheduledReconcileRunsOnlyWithLease() {
+        when(leaseService.tryAcquire(anyString(), any())).thenReturn(null);
+        
+        articleStatisticsService.scheduledReconcile();
+        
+        verifyNoInteractions(articleRepository, statisticRepository);
+    }
+    
+    private ArticleStatistic stat(StatisticDimension dimension, String key, Long count) {
+        return ArticleStatistic.builder().dimension(dimension).statKey(key).articleCount(count).build();
+    }
+    
+    private List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(Arrays.asList(rows));
+    }
+}
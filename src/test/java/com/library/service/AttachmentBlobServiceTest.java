@@ -0,0 +1,115 @@
+package com.library.service;
+
+import com.library.domain.entity.AttachmentBlob;
+import com.library.repository.ArticleAttachmentRepository;
+import com.library.repository.AttachmentBlobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AttachmentBlobServiceTest {
+    
+    private static final String SHA = "a".repeat(64);
+    
+    @Mock
+    private AttachmentBlobRepository blobRepository;
+    
+    @Mock
+    private ArticleAttachmentRepository attachmentRepository;
+    
+    @Mock
+    private AttachmentStorageService storageService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @InjectMocks
+    private AttachmentBlobService blobService;
+    
+    private final AttachmentBlob blob = AttachmentBlob.builder().sha256(SHA).build();
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+    
+    @Test
+    void testAcquireCreatesMissingBlobRowBeforeCommittingFile() throws Exception {
+        when(blobRepository.findForUpdate(SHA)).thenReturn(Optional.empty(), Optional.of(blob));
+        AttachmentStorageService.StoredBlob stored = new AttachmentStorageService.StoredBlob(SHA, 3, Paths.get("upload.part"));
+        
+        blobService.acquire(stored);
+        
+        verify(blobRepository).saveAndFlush(any(AttachmentBlob.class));
+        verify(blobRepository, times(2)).findForUpdate(SHA);
+        verify(storageService).commit(stored);
+    }
+    
+    @Test
+    void testReferencedBlobIsKept() throws Exception {
+        when(blobRepository.findForUpdate(SHA)).thenReturn(Optional.of(blob));
+        when(attachmentRepository.countBySha256(SHA)).thenReturn(1L);
+        
+        int released = blobService.releaseUnreferenced(Collections.singletonList(SHA));
+        
+        assertEquals(0, released);
+        verify(blobRepository, never()).delete(any());
+        verify(storageService, never()).detach(anyString());
+    }
+    
+    @Test
+    void testUnreferencedBlobIsDeletedOnlyAfterCommit() throws Exception {
+        Path detached = Paths.get("detached");
+        when(blobRepository.findForUpdate(SHA)).thenReturn(Optional.of(blob));
+        when(attachmentRepository.countBySha256(SHA)).thenReturn(0L);
+        when(storageService.detach(SHA)).thenReturn(detached);
+        
+        int released = blobService.releaseUnreferenced(Arrays.asList(SHA, SHA));
+        
+        assertEquals(1, released);
+        verify(blobRepository).delete(blob);
+        verify(storageService, never()).deleteDetached(any());
+        
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        verify(storageService).deleteDetached(detached);
+        verify(storageService, never()).restore(anyString(), any());
+    }
+    
+    @Test
+    void testRollbackRestoresDetachedBlob() throws Exception {
+        Path detached = Paths.get("detached");
+        when(blobRepository.findForUpdate(SHA)).thenReturn(Optional.of(blob));
+        when(storageService.detach(SHA)).thenReturn(detached);
+        
+        blobService.releaseUnreferenced(Collections.singletonList(SHA));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        
+        verify(storageService).restore(SHA, detached);
+        verify(storageService, never()).deleteDetached(any());
+    }
+}
@@ -0,0 +1,110 @@
+package com.library.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttachmentStorageServiceTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private AttachmentStorageService storageService;
+    
+    @BeforeEach
+    void setUp() {
+        storageService = new AttachmentStorageService();
+        ReflectionTestUtils.setField(storageService, "storagePath", tempDir.toString());
+        ReflectionTestUtils.setField(storageService, "maxSizeBytes", 1024L);
+        storageService.init();
+    }
+    
+    @Test
+    void testStoreIsContentAddressed() throws Exception {
+        byte[] content = "hello attachment".getBytes(StandardCharsets.UTF_8);
+        
+        AttachmentStorageService.StoredBlob first = storageService.store(new ByteArrayInputStream(content));
+        AttachmentStorageService.StoredBlob second = storageService.store(new ByteArrayInputStream(content));
+        assertFalse(storageService.exists(first.getSha256()));
+        storageService.commit(first);
+        storageService.commit(second);
+        
+        assertEquals(first.getSha256(), second.getSha256());
+        assertEquals(content.length, first.getSize());
+        assertTrue(storageService.exists(first.getSha256()));
+        assertArrayEquals(content, Files.readAllBytes(storageService.resolve(first.getSha256())));
+        
+        try (var tmp = Files.list(tempDir.resolve("tmp"))) {
+            assertEquals(0, tmp.count());
+        }
+    }
+    
+    @Test
+    void testStoreRejectsOversizedUpload() {
+        byte[] content = new byte[2048];
+        
+        assertThrows(IllegalArgumentException.class,
+            () -> storageService.store(new ByteArrayInputStream(content)));
+    }
+    
+    @Test
+    void testTransferWritesRequestedRange() throws Exception {
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        AttachmentStorageService.StoredBlob blob = storageService.store(new ByteArrayInputStream(content));
+        storageService.commit(blob);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        storageService.transfer(blob.getSha256(), 2, 5, new MockHttpServletRequest(), response);
+        
+        assertEquals("23456", response.getContentAsString());
+    }
+    
+    @Test
+    void testTransferDelegatesToSendfileWhenSupported() throws Exception {
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        AttachmentStorageService.StoredBlob blob = storageService.store(new ByteArrayInputStream(content));
+        storageService.commit(blob);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        storageService.transfer(blob.getSha256(), 4, 3, request, response);
+        
+        assertEquals(4L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(7L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+    
+    @Test
+    void testDetachedBlobCanBeRestoredOrDeleted() throws Exception {
+        byte[] content = "detach me".getBytes(StandardCharsets.UTF_8);
+        AttachmentStorageService.StoredBlob blob = storageService.store(new ByteArrayInputStream(content));
+        storageService.commit(blob);
+        
+        Path detached = storageService.detach(blob.getSha256());
+        assertFalse(storageService.exists(blob.getSha256()));
+        storageService.restore(blob.getSha256(), detached);
+        assertArrayEquals(content, Files.readAllBytes(storageService.resolve(blob.getSha256())));
+        
+        detached = storageService.detach(blob.getSha256());
+        storageService.deleteDetached(detached);
+        assertFalse(storageService.exists(blob.getSha256()));
+        assertFalse(Files.exists(detached));
+        assertNull(storageService.detach(blob.getSha256()));
+    }
+    
+    @Test
+    void testResolveRejectsInvalidAddress() {
+        assertThrows(IllegalArgumentException.class, () -> storageService.resolve("../../etc/passwd"));
+    }
+}
@@ -4,24 +4,39 @@ import com.library.domain.entity.User;
 import com.library.domain.enums.AuditAction;
 import com.library.domain.enums.Role;
 import com.library.dto.request.LoginRequest;
+import com.library.dto.request.RefreshTokenRequest;
 import com.library.dto.request.RegisterRequest;
 import com.library.dto.request.VerifyOtpRequest;
 import com.library.dto.response.AuthResponse;
+import com.library.dto.response.AvailabilityResponse;
 import com.library.exception.AccountLockedException;
 import com.library.exception.ResourceNotFoundException;
+import com.library.exception.TooManyLoginAttemptsException;
 import com.library.repository.UserRepository;
+import com.library.security.JwtClaims;
+import com.library.security.UserDetailsCache;
+import com.library.security.VerifiedTokenCache;
+import com.library.util.ClientIpResolver;
 import com.library.util.JwtUtil;
+import io.jsonwebtoken.MalformedJwtException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -52,6 +67,27 @@ class AuthServiceTest {
     @Mock
     private EmailService emailService;
     
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    
+    @Mock
+    private LoginAttemptTracker loginAttemptTracker;
+    
+    @Mock
+    private UserLookupService userLookupService;
+    
+    @Mock
+    private IdentifierAvailabilityService identifierAvailabilityService;
+    
+    @Mock
+    private UserDetailsCache userDetailsCache;
+    
     @InjectMocks
     private AuthService authService;
     
@@ -59,8 +95,10 @@ class AuthServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         ReflectionTestUtils.setField(authService, "maxLoginAttempts", 5);
-        ReflectionTestUtils.setField(authService, "loginAttemptWindowMinutes", 10);
+        ReflectionTestUtils.setField(authService, "maxLoginAttemptsPerIp", 50);
         ReflectionTestUtils.setField(authService, "accountLockDurationMinutes", 30);
+        when(identifierAvailabilityService.isUsernameAvailable(anyString())).thenReturn(true);
+        when(identifierAvailabilityService.isEmailAvailable(anyString())).thenReturn(true);
     }
     
     @Test
@@ -72,8 +110,6 @@ class AuthServiceTest {
                 .password("password123")
                 .build();
         
-        when(userRepository.existsByUsername("testuser")).thenReturn(false);
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
         
         User savedUser = User.builder()
@@ -85,7 +121,7 @@ class AuthServiceTest {
                 .role(Role.VIEWER)
                 .build();
         
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
         when(jwtUtil.generateToken(anyString(), any())).thenReturn("jwt-token");
         
         AuthResponse response = authService.register(request);
@@ -93,7 +129,8 @@ class AuthServiceTest {
         assertNotNull(response);
         assertEquals("jwt-token", response.getToken());
         assertEquals("testuser", response.getUsername());
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(identifierAvailabilityService).record(savedUser);
         verify(emailService, times(1)).sendWelcomeEmail(anyString(), anyString());
         verify(auditLogService, times(1)).logSuccess(eq(AuditAction.USER_REGISTER), anyString(), anyLong(), anyString());
     }
@@ -106,9 +143,13 @@ class AuthServiceTest {
                 .password("password123")
                 .build();
         
-        when(userRepository.existsByUsername("existinguser")).thenReturn(true);
+        when(identifierAvailabilityService.isUsernameAvailable("existinguser")).thenReturn(false);
         
-        assertThrows(IllegalArgumentException.class, () -> authService.register(request));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> authService.register(request));
+        assertEquals("Username already exists", e.getMessage());
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        verify(emailService, never()).sendWelcomeEmail(anyString(), anyString());
     }
     
     @Test
@@ -119,10 +160,59 @@ class AuthServiceTest {
                 .password("password123")
                 .build();
         
-        when(userRepository.existsByUsername("testuser")).thenReturn(false);
-        when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
+        when(identifierAvailabilityService.isEmailAvailable("existing@example.com")).thenReturn(false);
+        
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> authService.register(request));
+        assertEquals("Email already exists", e.getMessage());
+        verify(passwordEncoder, never()).encode(anyString());
+    }
+    
+    @Test
+    void testRegisterRaceIsReportedByConstraintName() {
+        RegisterRequest request = RegisterRequest.builder()
+                .username("testuser")
+                .email("existing@example.com")
+                .password("password123")
+                .build();
+        
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(duplicate("uk_users_email_normalized"));
+        
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> authService.register(request));
+        assertEquals("Email already exists", e.getMessage());
+    }
+    
+    @Test
+    void testRegisterRaceWithUnknownConstraint() {
+        RegisterRequest request = RegisterRequest.builder()
+                .username("testuser")
+                .email("test@example.com")
+                .password("password123")
+                .build();
+        
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(duplicate("uk7x3"));
+        
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> authService.register(request));
+        assertEquals("Username or email already exists", e.getMessage());
+    }
+    
+    @Test
+    void testConstraintNameAsReportedByH2() {
+        assertEquals("uk_users_username_normalized", AuthService.constraintName(
+                "\"PUBLIC.UK_USERS_USERNAME_NORMALIZED_INDEX_4 ON PUBLIC.USERS(USERNAME_NORMALIZED NULLS FIRST) "
+                        + "VALUES ( /* 1 */ 'abc' )\"; SQL statement:\ninsert into users"));
+        assertEquals("uk_users_email", AuthService.constraintName("uk_users_email"));
+    }
+    
+    @Test
+    void testCheckAvailability() {
+        when(identifierAvailabilityService.isUsernameAvailable("newuser")).thenReturn(true);
+        when(identifierAvailabilityService.isEmailAvailable("taken@example.com")).thenReturn(false);
+        
+        AvailabilityResponse response = authService.checkAvailability("newuser", "taken@example.com");
         
-        assertThrows(IllegalArgumentException.class, () -> authService.register(request));
+        assertTrue(response.getUsernameAvailable());
+        assertFalse(response.getEmailAvailable());
+        assertThrows(IllegalArgumentException.class, () -> authService.checkAvailability(null, null));
     }
     
     @Test
@@ -141,7 +231,7 @@ class AuthServiceTest {
                 .role(Role.VIEWER)
                 .build();
         
-        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(user));
+        when(userLookupService.findByIdentifier("testuser")).thenReturn(Optional.of(user));
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(null);
         when(otpService.generateAndSendOtp(any(User.class))).thenReturn("123456");
@@ -168,7 +258,7 @@ class AuthServiceTest {
                 .lockedUntil(LocalDateTime.now().plusMinutes(30))
                 .build();
         
-        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(user));
+        when(userLookupService.findByIdentifier("testuser")).thenReturn(Optional.of(user));
         
         assertThrows(AccountLockedException.class, () -> authService.login(request));
     }
@@ -187,12 +277,96 @@ class AuthServiceTest {
                 .failedLoginAttempts(0)
                 .build();
         
-        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(user));
+        when(userLookupService.findByIdentifier("testuser")).thenReturn(Optional.of(user));
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+        
+        when(loginAttemptTracker.recordFailure("user:1")).thenReturn(1);
+        
+        assertThrows(BadCredentialsException.class, () -> authService.login(request));
+        // Failures below the limit only touch the attempt counters
+        verify(userRepository, never()).save(any(User.class));
+    }
+    
+    @Test
+    void testLoginLocksAccountAtLimit() {
+        LoginRequest request = LoginRequest.builder()
+                .usernameOrEmail("testuser")
+                .password("wrongpassword")
+                .build();
+        
+        User user = User.builder()
+                .id(1L)
+                .username("testuser")
+                .accountLocked(false)
+                .build();
+        
+        when(userLookupService.findByIdentifier("testuser")).thenReturn(Optional.of(user));
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenThrow(new BadCredentialsException("Bad credentials"));
+        when(loginAttemptTracker.recordFailure("user:1")).thenReturn(5);
         
         assertThrows(BadCredentialsException.class, () -> authService.login(request));
-        verify(userRepository, times(1)).save(any(User.class));
+        
+        assertTrue(user.getAccountLocked());
+        assertNotNull(user.getLockedUntil());
+        verify(userRepository).save(user);
+        verify(loginAttemptTracker).reset("user:1");
+        verify(auditLogService).logSuccess(eq(AuditAction.USER_ACCOUNT_LOCKED), anyString(), eq(1L), eq("testuser"));
+    }
+    
+    @Test
+    void testLoginRejectedFromBlockedIp() {
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+        httpRequest.setRemoteAddr("203.0.113.7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+        ReflectionTestUtils.setField(authService, "clientIpResolver", new ClientIpResolver());
+        when(loginAttemptTracker.failures("ip:203.0.113.7")).thenReturn(50);
+        when(loginAttemptTracker.window()).thenReturn(Duration.ofMinutes(10));
+        
+        try {
+            LoginRequest request = LoginRequest.builder()
+                    .usernameOrEmail("testuser")
+                    .password("password123")
+                    .build();
+            
+            TooManyLoginAttemptsException ex = assertThrows(TooManyLoginAttemptsException.class,
+                () -> authService.login(request));
+            assertEquals(Duration.ofMinutes(10), ex.getRetryAfter());
+            verifyNoInteractions(userLookupService, authenticationManager);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+    
+    @Test
+    void testForgedForwardedForDoesNotMoveIpCounter() {
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+        httpRequest.setRemoteAddr("198.51.100.23");
+        httpRequest.addHeader("X-Forwarded-For", "203.0.113.7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+        ReflectionTestUtils.setField(authService, "clientIpResolver", new ClientIpResolver());
+        User user = User.builder().id(1L).username("testuser").accountLocked(false).build();
+        when(userLookupService.findByIdentifier("testuser")).thenReturn(Optional.of(user));
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+        
+        try {
+            LoginRequest request = LoginRequest.builder()
+                    .usernameOrEmail("testuser")
+                    .password("wrong")
+                    .build();
+            
+            assertThrows(BadCredentialsException.class, () -> authService.login(request));
+            
+            // The header came straight from the client, so the connection's address is counted
+            verify(loginAttemptTracker).failures("ip:198.51.100.23");
+            verify(loginAttemptTracker).recordFailure("ip:198.51.100.23");
+            verify(loginAttemptTracker, never()).failures("ip:203.0.113.7");
+            verify(loginAttemptTracker, never()).recordFailure("ip:203.0.113.7");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
     }
     
     @Test
@@ -209,7 +383,7 @@ class AuthServiceTest {
                 .role(Role.VIEWER)
                 .build();
         
-        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(user));
+        when(userLookupService.findByIdentifier("testuser")).thenReturn(Optional.of(user));
         when(otpService.verifyOtp(1L, "123456")).thenReturn(true);
         when(jwtUtil.generateToken(anyString(), any())).thenReturn("jwt-token");
         
@@ -233,7 +407,7 @@ class AuthServiceTest {
                 .username("testuser")
                 .build();
         
-        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(user));
+        when(userLookupService.findByIdentifier("testuser")).thenReturn(Optional.of(user));
         when(otpService.verifyOtp(1L, "wrong")).thenReturn(false);
         
         assertThrows(BadCredentialsException.class, () -> authService.verifyOtp(request));
@@ -246,8 +420,72 @@ class AuthServiceTest {
                 .password("password123")
                 .build();
         
-        when(userRepository.findByUsernameOrEmail("nonexistent")).thenReturn(Optional.empty());
+        when(userLookupService.findByIdentifier("nonexistent")).thenReturn(Optional.empty());
         
         assertThrows(ResourceNotFoundException.class, () -> authService.login(request));
     }
+    
+    @Test
+    void testLogoutRevokesToken() {
+        JwtClaims claims = JwtClaims.builder().tokenId("jti").subject("testuser").userId(1L).build();
+        when(jwtUtil.verify("jwt-token")).thenReturn(claims);
+        
+        authService.logout("jwt-token", "refresh-token");
+        
+        verify(tokenRevocationService, times(1)).revoke(claims);
+        verify(verifiedTokenCache, times(1)).invalidate("jwt-token");
+        verify(refreshTokenService, times(1)).revoke("refresh-token", 1L);
+        verify(auditLogService, times(1)).logSuccess(eq(AuditAction.USER_LOGOUT), anyString(), eq(1L), eq("testuser"));
+    }
+    
+    @Test
+    void testLogoutWithInvalidToken() {
+        when(jwtUtil.verify("bad-token")).thenThrow(new MalformedJwtException("bad"));
+        
+        assertThrows(BadCredentialsException.class, () -> authService.logout("bad-token", null));
+        verifyNoInteractions(tokenRevocationService);
+    }
+    
+    @Test
+    void testRefreshRotatesTokenWithoutPasswordCheck() {
+        User user = User.builder()
+                .id(1L)
+                .username("testuser")
+                .email("test@example.com")
+                .role(Role.VIEWER)
+                .build();
+        when(refreshTokenService.rotate("refresh-token"))
+                .thenReturn(new RefreshTokenService.Rotation(1L, "next-refresh-token"));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(jwtUtil.generateToken(anyString(), any())).thenReturn("jwt-token");
+        
+        AuthResponse response = authService.refresh(new RefreshTokenRequest("refresh-token"));
+        
+        assertEquals("jwt-token", response.getToken());
+        assertEquals("next-refresh-token", response.getRefreshToken());
+        verifyNoInteractions(authenticationManager, otpService);
+    }
+    
+    @Test
+    void testRefreshForDisabledUserRevokesFamily() {
+        User user = User.builder()
+                .id(1L)
+                .username("testuser")
+                .enabled(false)
+                .build();
+        when(refreshTokenService.rotate("refresh-token"))
+                .thenReturn(new RefreshTokenService.Rotation(1L, "next-refresh-token"));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        
+        assertThrows(BadCredentialsException.class,
+            () -> authService.refresh(new RefreshTokenRequest("refresh-token")));
+        verify(refreshTokenService, times(1)).revoke("next-refresh-token", 1L);
+        verify(jwtUtil, never()).generateToken(anyString(), any());
+    }
+    
+    private static DataIntegrityViolationException duplicate(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement",
+                        new SQLException("Unique index or primary key violation"), constraint));
+    }
 }
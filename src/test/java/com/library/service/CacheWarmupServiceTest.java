@@ -0,0 +1,91 @@
+package com.library.service;
+
+import com.library.domain.enums.AuditAction;
+import com.library.repository.AuditLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CacheWarmupServiceTest {
+    
+    @Mock
+    private ArticleService articleService;
+    
+    @Mock
+    private AuditLogRepository auditLogRepository;
+    
+    @InjectMocks
+    private CacheWarmupService cacheWarmupService;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(cacheWarmupService, "enabled", true);
+        ReflectionTestUtils.setField(cacheWarmupService, "topArticles", 10);
+        ReflectionTestUtils.setField(cacheWarmupService, "lookbackDays", 7);
+        ReflectionTestUtils.setField(cacheWarmupService, "batchSize", 2);
+        ReflectionTestUtils.setField(cacheWarmupService, "parallelism", 2);
+        ReflectionTestUtils.setField(cacheWarmupService, "timeBudget", Duration.ofSeconds(5));
+    }
+    
+    @Test
+    void testWarmUpLoadsHottestArticlesInBatches() {
+        when(auditLogRepository.findMostFrequentResourceIds(eq(AuditAction.ARTICLE_VIEWED), any(), any()))
+                .thenReturn(Arrays.asList(1L, 2L, 3L, 4L, 5L));
+        when(articleService.preloadArticles(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        
+        cacheWarmupService.warmUp();
+        
+        assertEquals(CacheWarmupService.Status.COMPLETED, cacheWarmupService.getStatus());
+        assertEquals(5, cacheWarmupService.getDetails().get("warmedArticles"));
+        verify(articleService, times(3)).preloadArticles(anyList());
+        verify(articleService, times(1)).preloadArticleLists();
+    }
+    
+    @Test
+    void testWarmUpStopsAtTimeBudget() {
+        ReflectionTestUtils.setField(cacheWarmupService, "timeBudget", Duration.ofMillis(100));
+        when(auditLogRepository.findMostFrequentResourceIds(any(), any(), any()))
+                .thenReturn(Arrays.asList(1L, 2L));
+        doAnswer(inv -> {
+            Thread.sleep(5000);
+            return null;
+        }).when(articleService).preloadArticleLists();
+        
+        cacheWarmupService.warmUp();
+        
+        assertEquals(CacheWarmupService.Status.PARTIAL, cacheWarmupService.getStatus());
+    }
+    
+    @Test
+    void testWarmUpFailureDoesNotThrow() {
+        when(auditLogRepository.findMostFrequentResourceIds(any(), any(), any()))
+                .thenThrow(new RuntimeException("database unavailable"));
+        
+        assertDoesNotThrow(() -> cacheWarmupService.warmUp());
+        assertEquals(CacheWarmupService.Status.FAILED, cacheWarmupService.getStatus());
+    }
+    
+    @Test
+    void testDisabledWarmUpSkipsLoading() {
+        ReflectionTestUtils.setField(cacheWarmupService, "enabled", false);
+        
+        cacheWarmupService.run(null);
+        
+        assertEquals(CacheWarmupService.Status.DISABLED, cacheWarmupService.getStatus());
+        verifyNoInteractions(articleService, auditLogRepository);
+    }
+}
@@ -0,0 +1,235 @@
+package com.library.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.library.domain.entity.OutboxEmail;
+import com.library.domain.enums.OutboxEmailStatus;
+import com.library.repository.OutboxEmailRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxWorkerTest {
+    
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+    
+    @Mock
+    private OutboxEmailRepository outboxEmailRepository;
+    
+    @Mock
+    private LeaseService leaseService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @InjectMocks
+    private EmailOutboxWorker worker;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SmtpTransportPool smtpTransportPool = new SmtpTransportPool();
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        ReflectionTestUtils.setField(smtpTransportPool, "mailSender", mailSender);
+        ReflectionTestUtils.setField(smtpTransportPool, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(smtpTransportPool, "poolSize", 2);
+        ReflectionTestUtils.setField(smtpTransportPool, "maxMessagesPerSession", 100);
+        ReflectionTestUtils.setField(smtpTransportPool, "maxSessionAge", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(smtpTransportPool, "maxIdle", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(smtpTransportPool, "borrowTimeout", Duration.ofSeconds(5));
+        smtpTransportPool.start();
+        
+        ReflectionTestUtils.setField(worker, "smtpTransportPool", smtpTransportPool);
+        ReflectionTestUtils.setField(worker, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(worker, "fromEmail", "library@example.com");
+        ReflectionTestUtils.setField(worker, "enabled", true);
+        ReflectionTestUtils.setField(worker, "batchSize", 2);
+        ReflectionTestUtils.setField(worker, "maxBatchesPerRun", 5);
+        ReflectionTestUtils.setField(worker, "workers", 2);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(worker, "initialBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(worker, "maxBackoff", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(worker, "leaseTtl", Duration.ofMinutes(2));
+        ReflectionTestUtils.setField(worker, "sendTimeout", Duration.ofSeconds(30));
+        worker.start();
+        when(leaseService.tryAcquire(eq("email-outbox"), any())).thenReturn("lease");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        worker.stop();
+        smtpTransportPool.stop();
+    }
+    
+    @Test
+    void testDrainDeliversInBatches() throws Exception {
+        List<OutboxEmail> first = Arrays.asList(email(1L, "a@example.com"), email(2L, "b@example.com"));
+        List<OutboxEmail> last = Collections.singletonList(email(3L, "c@example.com"));
+        when(outboxEmailRepository.findDue(any(), anyInt())).thenReturn(first, last);
+        
+        assertEquals(3, worker.drain());
+        
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("Subject", received[0].getSubject());
+        assertEquals("Body", GreenMailUtil.getBody(received[0]).trim());
+        verify(outboxEmailRepository).markSent(eq(Arrays.asList(1L, 2L)), any());
+        verify(outboxEmailRepository).markSent(eq(Collections.singletonList(3L)), any());
+        verify(leaseService).release("email-outbox", "lease");
+    }
+    
+    @Test
+    void testFailedSendIsRescheduledWithBackoff() {
+        greenMail.stop();
+        OutboxEmail email = email(1L, "a@example.com");
+        email.setAttempts(1);
+        when(outboxEmailRepository.findDue(any(), anyInt())).thenReturn(Collections.singletonList(email));
+        
+        assertEquals(0, worker.drain());
+        
+        assertEquals(OutboxEmailStatus.PENDING, email.getStatus());
+        assertEquals(2, email.getAttempts());
+        assertNotNull(email.getLastError());
+        assertTrue(email.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+        verify(outboxEmailRepository).saveAll(anyList());
+        verify(outboxEmailRepository, never()).markSent(anyCollection(), any());
+    }
+    
+    @Test
+    void testStuckSendIsRescheduled() {
+        SmtpTransportPool stuckPool = mock(SmtpTransportPool.class);
+        doAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return null;
+        }).when(stuckPool).send(any());
+        ReflectionTestUtils.setField(worker, "smtpTransportPool", stuckPool);
+        ReflectionTestUtils.setField(worker, "sendTimeout", Duration.ofMillis(200));
+        OutboxEmail email = email(1L, "a@example.com");
+        when(outboxEmailRepository.findDue(any(), anyInt())).thenReturn(Collections.singletonList(email));
+        
+        assertEquals(0, worker.drain());
+        
+        assertEquals(OutboxEmailStatus.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertTrue(email.getLastError().contains("did not complete"));
+        verify(outboxEmailRepository, never()).markSent(anyCollection(), any());
+    }
+    
+    @Test
+    void testLastAttemptMarksFailed() {
+        greenMail.stop();
+        OutboxEmail email = email(1L, "a@example.com");
+        email.setAttempts(2);
+        when(outboxEmailRepository.findDue(any(), anyInt())).thenReturn(Collections.singletonList(email));
+        
+        worker.drain();
+        
+        assertEquals(OutboxEmailStatus.FAILED, email.getStatus());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExpiredEmailIsNotSent() {
+        OutboxEmail email = email(1L, "a@example.com");
+        email.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(outboxEmailRepository.findDue(any(), anyInt())).thenReturn(Collections.singletonList(email));
+        
+        worker.drain();
+        
+        assertEquals(0, greenMail.getReceivedMessages().length);
+        assertEquals(OutboxEmailStatus.FAILED, email.getStatus());
+        ArgumentCaptor<List<OutboxEmail>> saved = ArgumentCaptor.forClass(List.class);
+        verify(outboxEmailRepository).saveAll(saved.capture());
+        assertEquals(Collections.singletonList(email), saved.getValue());
+    }
+    
+    @Test
+    void testSensitiveBodyIsClearedWhenGivenUpOn() {
+        greenMail.stop();
+        OutboxEmail lastAttempt = email(1L, "a@example.com");
+        lastAttempt.setAttempts(2);
+        lastAttempt.setSensitive(true);
+        OutboxEmail expired = email(2L, "b@example.com");
+        expired.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        expired.setSensitive(true);
+        when(outboxEmailRepository.findDue(any(), anyInt())).thenReturn(Arrays.asList(lastAttempt, expired));
+        
+        worker.drain();
+        
+        assertEquals(OutboxEmailStatus.FAILED, lastAttempt.getStatus());
+        assertEquals("", lastAttempt.getBody());
+        assertEquals(OutboxEmailStatus.FAILED, expired.getStatus());
+        assertEquals("", expired.getBody());
+    }
+    
+    @Test
+    void testBodyIsKeptWhenSendIsRetried() {
+        greenMail.stop();
+        OutboxEmail email = email(1L, "a@example.com");
+        email.setSensitive(true);
+        when(outboxEmailRepository.findDue(any(), anyInt())).thenReturn(Collections.singletonList(email));
+        
+        worker.drain();
+        
+        assertEquals(OutboxEmailStatus.PENDING, email.getStatus());
+        assertEquals("Body", email.getBody());
+    }
+    
+    @Test
+    void testDrainSkippedWhenLeaseHeldElsewhere() {
+        when(leaseService.tryAcquire(anyString(), any())).thenReturn(null);
+        
+        assertEquals(0, worker.drain());
+        verifyNoInteractions(outboxEmailRepository);
+    }
+    
+    @Test
+    void testBackoffDoublesUpToMax() {
+        assertEquals(Duration.ofSeconds(30), worker.backoff(1));
+        assertEquals(Duration.ofSeconds(60), worker.backoff(2));
+        assertEquals(Duration.ofSeconds(240), worker.backoff(4));
+        assertEquals(Duration.ofMinutes(5), worker.backoff(10));
+    }
+    
+    private OutboxEmail email(Long id, String recipient) {
+        return OutboxEmail.builder()
+                .id(id)
+                .recipient(recipient)
+                .subject("Subject")
+                .body("Body")
+                .createdAt(LocalDateTime.now())
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
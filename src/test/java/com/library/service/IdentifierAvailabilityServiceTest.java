@@ -0,0 +1,110 @@
+package com.library.service;
+
+import com.library.domain.entity.User;
+import com.library.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdentifierAvailabilityServiceTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @InjectMocks
+    private IdentifierAvailabilityService availabilityService;
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(availabilityService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(availabilityService, "expectedIdentifiers", 1000L);
+        ReflectionTestUtils.setField(availabilityService, "falsePositiveProbability", 0.01);
+        ReflectionTestUtils.setField(availabilityService, "rebuildBatchSize", 2);
+    }
+    
+    @Test
+    void testUnseenIdentifierIsAvailableWithoutQuery() {
+        when(userRepository.findIdentifiersAfter(anyLong(), any(Pageable.class))).thenReturn(Collections.emptyList());
+        availabilityService.rebuild();
+        
+        assertTrue(availabilityService.isUsernameAvailable("newuser"));
+        assertTrue(availabilityService.isEmailAvailable("new@example.com"));
+        verify(userRepository, never()).existsByUsernameNormalized(anyString());
+        verify(userRepository, never()).existsByEmailNormalized(anyString());
+        assertEquals(1.0, meterRegistry.get("user.availability.checks")
+                .tags("field", "username", "source", "filter").counter().count());
+    }
+    
+    @Test
+    void testRebuildReadsAllBatchesAndNormalizes() {
+        when(userRepository.findIdentifiersAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(rows(new Object[]{1L, "Alice", "Alice@Example.com"}, new Object[]{2L, "bob", "bob@example.com"}));
+        when(userRepository.findIdentifiersAfter(eq(2L), any(Pageable.class)))
+                .thenReturn(rows(new Object[]{5L, "carol", "carol@example.com"}));
+        when(userRepository.existsByUsernameNormalized(anyString())).thenReturn(true);
+        when(userRepository.existsByEmailNormalized(anyString())).thenReturn(true);
+        
+        availabilityService.rebuild();
+        
+        assertFalse(availabilityService.isUsernameAvailable("ALICE"));
+        assertFalse(availabilityService.isUsernameAvailable("carol"));
+        assertFalse(availabilityService.isEmailAvailable("alice@example.com"));
+        verify(userRepository).existsByUsernameNormalized("alice");
+        verify(userRepository).existsByEmailNormalized("alice@example.com");
+        verify(userRepository, times(2)).findIdentifiersAfter(anyLong(), any(Pageable.class));
+    }
+    
+    @Test
+    void testRecordedUserIsCheckedAgainstDatabase() {
+        when(userRepository.findIdentifiersAfter(anyLong(), any(Pageable.class))).thenReturn(Collections.emptyList());
+        availabilityService.rebuild();
+        
+        availabilityService.record(User.builder().username("Dave").email("dave@example.com").build());
+        when(userRepository.existsByUsernameNormalized("dave")).thenReturn(true);
+        
+        assertFalse(availabilityService.isUsernameAvailable("dave"));
+    }
+    
+    @Test
+    void testFailedRebuildKeepsAnsweringFromDatabase() {
+        when(userRepository.findIdentifiersAfter(anyLong(), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("db down"));
+        
+        assertDoesNotThrow(() -> availabilityService.rebuild());
+        availabilityService.isUsernameAvailable("someone");
+        
+        verify(userRepository).existsByUsernameNormalized("someone");
+    }
+    
+    @Test
+    void testBlankIdentifierIsNotAvailable() {
+        assertFalse(availabilityService.isUsernameAvailable("  "));
+        assertFalse(availabilityService.isEmailAvailable(null));
+    }
+    
+    private static List<Object[]> rows(Object[]... rows) {
+        List<Object[]> result = new ArrayList<>();
+        Collections.addAll(result, rows);
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package com.library.service;
+
+import com.library.domain.entity.OtpToken;
+import com.library.repository.OtpTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JpaOtpStoreTest {
+    
+    @Mock
+    private OtpTokenRepository otpTokenRepository;
+    
+    @InjectMocks
+    private JpaOtpStore otpStore;
+    
+    private OtpToken otpToken;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        otpToken = OtpToken.builder()
+                .id(1L)
+                .userId(1L)
+                .otpCode("123456")
+                .expiresAt(LocalDateTime.now().plusMinutes(5))
+                .build();
+        when(otpTokenRepository.findFirstByUserIdAndUsedFalseAndExpiresAtAfterOrderByCreatedAtDesc(eq(1L),
+                any(LocalDateTime.class))).thenReturn(Optional.of(otpToken));
+    }
+    
+    @Test
+    void testSaveReplacesPreviousCode() {
+        otpStore.save(1L, "654321", Duration.ofMinutes(5));
+        
+        ArgumentCaptor<OtpToken> saved = ArgumentCaptor.forClass(OtpToken.class);
+        verify(otpTokenRepository).deleteByUserId(1L);
+        verify(otpTokenRepository).save(saved.capture());
+        assertEquals("654321", saved.getValue().getOtpCode());
+        assertEquals(0, saved.getValue().getAttempts());
+    }
+    
+    @Test
+    void testMatchingCodeIsConsumed() {
+        assertTrue(otpStore.verifyAndConsume(1L, "123456", 5));
+        assertTrue(otpToken.getUsed());
+    }
+    
+    @Test
+    void testWrongCodeCountsAttempt() {
+        assertFalse(otpStore.verifyAndConsume(1L, "000000", 5));
+        
+        assertEquals(1, otpToken.getAttempts());
+        assertFalse(otpToken.getUsed());
+    }
+    
+    @Test
+    void testLastAttemptBurnsCode() {
+        otpToken.setAttempts(4);
+        
+        assertFalse(otpStore.verifyAndConsume(1L, "000000", 5));
+        assertTrue(otpToken.getUsed());
+    }
+    
+    @Test
+    void testNoValidCode() {
+        assertFalse(otpStore.verifyAndConsume(2L, "123456", 5));
+        verify(otpTokenRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,128 @@
+package com.library.service;
+
+import com.github.fppt.jedismock.RedisServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LoginAttemptTrackerTest {
+    
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    
+    @InjectMocks
+    private LoginAttemptTracker tracker;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(tracker, "store", "memory");
+        ReflectionTestUtils.setField(tracker, "keyPrefix", "login-failures:");
+        ReflectionTestUtils.setField(tracker, "maxKeys", 1000);
+        ReflectionTestUtils.setField(tracker, "windowMinutes", 10);
+        ReflectionTestUtils.setField(tracker, "maxLoginAttempts", 3);
+        ReflectionTestUtils.setField(tracker, "maxLoginAttemptsPerIp", 5);
+        tracker.init();
+    }
+    
+    @Test
+    void testFailuresAreCountedPerKey() {
+        assertEquals(1, tracker.recordFailure("user:1"));
+        assertEquals(2, tracker.recordFailure("user:1"));
+        assertEquals(1, tracker.recordFailure("ip:10.0.0.1"));
+        
+        assertEquals(2, tracker.failures("user:1"));
+        assertEquals(0, tracker.failures("user:2"));
+        verifyNoInteractions(redisTemplate);
+    }
+    
+    @Test
+    void testCountStopsAtLargestThreshold() {
+        for (int i = 0; i < 8; i++) {
+            tracker.recordFailure("ip:10.0.0.1");
+        }
+        
+        assertEquals(5, tracker.failures("ip:10.0.0.1"));
+    }
+    
+    @Test
+    void testResetClearsWindow() {
+        tracker.recordFailure("user:1");
+        tracker.reset("user:1");
+        
+        assertEquals(0, tracker.failures("user:1"));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRedisStoreRunsSlidingWindowScript() {
+        ReflectionTestUtils.setField(tracker, "store", "redis");
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any())).thenReturn(4L);
+        
+        assertEquals(4, tracker.recordFailure("user:1"));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(Collections.singletonList("login-failures:user:1")),
+                eq("600000"), eq("5"), any());
+    }
+    
+    @Test
+    void testRedisScriptsShareOneWindow() throws Exception {
+        RedisServer server = RedisServer.newRedisServer(0);
+        server.start();
+        LettuceConnectionFactory connectionFactory =
+                new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", server.getBindPort()));
+        try {
+            connectionFactory.afterPropertiesSet();
+            StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+            ReflectionTestUtils.setField(tracker, "redisTemplate", template);
+            ReflectionTestUtils.setField(tracker, "store", "redis");
+            
+            assertEquals(1, tracker.recordFailure("user:1"));
+            assertEquals(2, tracker.recordFailure("user:1"));
+            assertEquals(2, tracker.failures("user:1"));
+            assertEquals(0, tracker.failures("user:2"));
+            
+            // An entry scored a full window ago on the server's clock is out of the window
+            double oldest = template.opsForZSet().range("login-failures:user:1", 0, 0).stream()
+                    .mapToDouble(member -> template.opsForZSet().score("login-failures:user:1", member))
+                    .findFirst().orElseThrow();
+            template.opsForZSet().add("login-failures:user:1", "expired", oldest - Duration.ofMinutes(10).toMillis());
+            assertEquals(2, tracker.failures("user:1"));
+            assertEquals(3, tracker.recordFailure("user:1"));
+            assertNull(template.opsForZSet().score("login-failures:user:1", "expired"));
+        } finally {
+            connectionFactory.destroy();
+            server.stop();
+        }
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRedisOutageFallsBackToLocalWindow() {
+        ReflectionTestUtils.setField(tracker, "store", "redis");
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        
+        assertEquals(1, tracker.recordFailure("user:1"));
+        assertEquals(2, tracker.recordFailure("user:1"));
+        assertEquals(2, tracker.failures("user:1"));
+    }
+}
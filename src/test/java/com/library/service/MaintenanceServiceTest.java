@@ -0,0 +1,154 @@
+package com.library.service;
+
+import com.library.repository.AuditLogRepository;
+import com.library.repository.OutboxEmailRepository;
+import com.library.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MaintenanceServiceTest {
+    
+    @Mock
+    private OtpService otpService;
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private AuditLogRepository auditLogRepository;
+    
+    @Mock
+    private OutboxEmailRepository outboxEmailRepository;
+    
+    @Mock
+    private LeaseService leaseService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @InjectMocks
+    private MaintenanceService maintenanceService;
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(maintenanceService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(maintenanceService, "enabled", true);
+        ReflectionTestUtils.setField(maintenanceService, "chunkSize", 2);
+        ReflectionTestUtils.setField(maintenanceService, "maxChunksPerRun", 3);
+        ReflectionTestUtils.setField(maintenanceService, "pauseBetweenChunks", Duration.ZERO);
+        ReflectionTestUtils.setField(maintenanceService, "leaseTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(maintenanceService, "auditRetention", Duration.ofDays(365));
+        ReflectionTestUtils.setField(maintenanceService, "outboxRetention", Duration.ofDays(7));
+        when(leaseService.tryAcquire(anyString(), any())).thenReturn("lease");
+    }
+    
+    @Test
+    void testAuditRetentionRunsInChunksUntilDone() {
+        List<Long> firstChunk = Arrays.asList(1L, 2L);
+        List<Long> lastChunk = Collections.singletonList(3L);
+        when(auditLogRepository.findIdsOlderThan(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(firstChunk, lastChunk);
+        when(auditLogRepository.deleteByIds(firstChunk)).thenReturn(2);
+        when(auditLogRepository.deleteByIds(lastChunk)).thenReturn(1);
+        
+        maintenanceService.purgeAuditLogs();
+        
+        verify(auditLogRepository, times(2)).deleteByIds(any());
+        assertEquals(3.0, meterRegistry.get("maintenance.rows").tag("job", "audit-retention").counter().count());
+        assertEquals(1, meterRegistry.get("maintenance.duration").tag("job", "audit-retention").timer().count());
+        verify(leaseService).release("maintenance:audit-retention", "lease");
+    }
+    
+    @Test
+    void testRunStopsAtChunkLimit() {
+        when(otpService.cleanupExpiredOtps(2)).thenReturn(2);
+        
+        maintenanceService.cleanupOtps();
+        
+        verify(otpService, times(3)).cleanupExpiredOtps(2);
+    }
+    
+    @Test
+    void testRetentionDrainsBacklogBeyondChunkLimit() {
+        // Five full chunks and a short one, more than max-chunks-per-run allows
+        when(outboxEmailRepository.findFinishedIdsBefore(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Arrays.asList(1L, 2L), Arrays.asList(3L, 4L), Arrays.asList(5L, 6L),
+                        Arrays.asList(7L, 8L), Arrays.asList(9L, 10L), Collections.singletonList(11L));
+        when(outboxEmailRepository.deleteByIds(any())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        
+        maintenanceService.purgeOutbox();
+        
+        verify(outboxEmailRepository, times(6)).deleteByIds(any());
+        assertEquals(11.0, meterRegistry.get("maintenance.rows").tag("job", "outbox-retention").counter().count());
+    }
+    
+    @Test
+    void testRetentionStopsBeforeLeaseRunsOut() {
+        ReflectionTestUtils.setField(maintenanceService, "leaseTtl", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(maintenanceService, "pauseBetweenChunks", Duration.ofMillis(50));
+        when(auditLogRepository.findIdsOlderThan(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Arrays.asList(1L, 2L));
+        when(auditLogRepository.deleteByIds(any())).thenReturn(2);
+        
+        int deleted = maintenanceService.runJob(MaintenanceService.AUDIT_RETENTION, () -> {
+            auditLogRepository.findIdsOlderThan(LocalDateTime.now(), Pageable.unpaged());
+            return auditLogRepository.deleteByIds(Arrays.asList(1L, 2L));
+        }, true);
+        
+        // Far more than three chunks, but bounded by 400 ms of the 500 ms lease
+        assertTrue(deleted > 6 && deleted <= 20, "deleted " + deleted);
+        verify(leaseService).release("maintenance:audit-retention", "lease");
+    }
+    
+    @Test
+    void testExpiredLocksAreCleared() {
+        List<Long> ids = Collections.singletonList(7L);
+        when(userRepository.findExpiredLockIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(ids);
+        when(userRepository.unlockExpired(eq(ids), any(LocalDateTime.class))).thenReturn(1);
+        
+        maintenanceService.expireLocks();
+        
+        verify(userRepository).unlockExpired(eq(ids), any(LocalDateTime.class));
+    }
+    
+    @Test
+    void testJobSkippedWhenLeaseHeldElsewhere() {
+        when(leaseService.tryAcquire(eq("maintenance:outbox-retention"), any())).thenReturn(null);
+        
+        maintenanceService.purgeOutbox();
+        
+        verifyNoInteractions(outboxEmailRepository);
+    }
+    
+    @Test
+    void testFailureIsLoggedAndLeaseReleased() {
+        when(auditLogRepository.findIdsOlderThan(any(LocalDateTime.class), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("db down"));
+        
+        assertDoesNotThrow(() -> maintenanceService.purgeAuditLogs());
+        verify(leaseService).release("maintenance:audit-retention", "lease");
+    }
+}
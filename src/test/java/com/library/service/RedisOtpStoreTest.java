@@ -0,0 +1,70 @@
+package com.library.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RedisOtpStoreTest {
+    
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+    
+    @InjectMocks
+    private RedisOtpStore otpStore;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        ReflectionTestUtils.setField(otpStore, "keyPrefix", "otp:");
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSaveWritesCodeAndTtlInOneScript() {
+        otpStore.save(1L, "123456", Duration.ofMinutes(5));
+        
+        verify(redisTemplate).execute(any(RedisScript.class), eq(Collections.singletonList("otp:1")),
+                eq("123456"), eq("300000"));
+        verifyNoInteractions(hashOperations);
+        verify(redisTemplate, never()).expire(anyString(), any(Duration.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testVerifyRunsScriptAgainstUserKey() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(1L);
+        
+        assertTrue(otpStore.verifyAndConsume(1L, "123456", 5));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(Collections.singletonList("otp:1")),
+                eq("123456"), eq("5"));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWrongOrMissingCodeFails() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(-1L, 0L);
+        
+        assertFalse(otpStore.verifyAndConsume(1L, "000000", 5));
+        assertFalse(otpStore.verifyAndConsume(1L, "000000", 5));
+    }
+}
@@ -0,0 +1,149 @@
+package com.library.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+    
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+    
+    @Mock
+    private SetOperations<String, String> setOperations;
+    
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        ReflectionTestUtils.setField(refreshTokenService, "tokenKeyPrefix", "refresh-token:");
+        ReflectionTestUtils.setField(refreshTokenService, "familyKeyPrefix", "refresh-family:");
+        ReflectionTestUtils.setField(refreshTokenService, "userKeyPrefix", "refresh-user:");
+        ReflectionTestUtils.setField(refreshTokenService, "expiration", Duration.ofDays(7));
+        ReflectionTestUtils.setField(refreshTokenService, "absoluteExpiration", Duration.ofDays(30));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testIssueWritesKeysAndTtlsInOneScript() {
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        
+        String token = refreshTokenService.issue(1L);
+        
+        assertNotNull(token);
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), eq("1"), anyString(),
+                eq(String.valueOf(Duration.ofDays(30).toMillis())), eq(String.valueOf(Duration.ofDays(7).toMillis())));
+        assertTrue(keys.getValue().get(0).startsWith("refresh-family:"));
+        assertEquals("refresh-user:1", keys.getValue().get(1));
+        // Only the digest of the token is stored
+        assertTrue(keys.getValue().get(2).startsWith("refresh-token:"));
+        assertFalse(keys.getValue().get(2).contains(token));
+        verifyNoInteractions(valueOperations, hashOperations, setOperations);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testIssueWithoutRedisReturnsNull() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        
+        assertNull(refreshTokenService.issue(1L));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRotateReturnsSuccessor() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenReturn(Arrays.asList(1L, "7"));
+        
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("refresh-token");
+        
+        assertEquals(7L, rotation.getUserId());
+        assertNotNull(rotation.getRefreshToken());
+        assertNotEquals("refresh-token", rotation.getRefreshToken());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRotateRejectsReusedToken() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenReturn(Arrays.asList(-2L, "7"));
+        
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("refresh-token"));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRotateRejectsUnknownToken() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenReturn(Collections.singletonList(0L));
+        
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("refresh-token"));
+    }
+    
+    @Test
+    void testRevokeDeletesFamily() {
+        when(hashOperations.multiGet(startsWith("refresh-token:"), eq(Arrays.asList("userId", "familyId"))))
+                .thenReturn(Arrays.asList("1", "family-1"));
+        
+        assertTrue(refreshTokenService.revoke("refresh-token", 1L));
+        
+        verify(redisTemplate).delete("refresh-family:family-1");
+    }
+    
+    @Test
+    void testRevokeIgnoresTokenOfAnotherUser() {
+        when(hashOperations.multiGet(startsWith("refresh-token:"), eq(Arrays.asList("userId", "familyId"))))
+                .thenReturn(Arrays.asList("2", "family-2"));
+        
+        assertFalse(refreshTokenService.revoke("refresh-token", 1L));
+        
+        verify(redisTemplate, never()).delete(anyString());
+    }
+    
+    @Test
+    void testRevokeAllDeletesEveryFamilyOfTheUser() {
+        when(setOperations.members("refresh-user:1")).thenReturn(new HashSet<>(Arrays.asList("family-1", "family-2")));
+        
+        refreshTokenService.revokeAll(1L);
+        
+        verify(redisTemplate).delete(argThat((Collection<String> keys) -> keys.size() == 3
+                && keys.containsAll(Arrays.asList("refresh-user:1", "refresh-family:family-1", "refresh-family:family-2"))));
+    }
+}
@@ -0,0 +1,63 @@
+package com.library.service;
+
+import com.library.domain.entity.User;
+import com.library.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SecurityVersionServiceTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @InjectMocks
+    private SecurityVersionService securityVersionService;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(securityVersionService, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(securityVersionService, "maxSize", 100L);
+        securityVersionService.init();
+    }
+    
+    @Test
+    void testVersionIsCached() {
+        when(userRepository.findSecurityVersionById(1L)).thenReturn(Optional.of(3L));
+        
+        assertEquals(3L, securityVersionService.getVersion(1L));
+        assertEquals(3L, securityVersionService.getVersion(1L));
+        verify(userRepository, times(1)).findSecurityVersionById(1L);
+    }
+    
+    @Test
+    void testMissingUserIsCachedAsNull() {
+        when(userRepository.findSecurityVersionById(9L)).thenReturn(Optional.empty());
+        
+        assertNull(securityVersionService.getVersion(9L));
+        assertNull(securityVersionService.getVersion(9L));
+        verify(userRepository, times(1)).findSecurityVersionById(9L);
+    }
+    
+    @Test
+    void testBumpIncrementsAndDropsCachedVersion() {
+        User user = User.builder().id(1L).securityVersion(3L).build();
+        when(userRepository.findSecurityVersionById(1L)).thenReturn(Optional.of(3L), Optional.of(4L));
+        assertEquals(3L, securityVersionService.getVersion(1L));
+        
+        securityVersionService.bump(user);
+        
+        assertEquals(4L, user.getSecurityVersion());
+        assertEquals(4L, securityVersionService.getVersion(1L));
+    }
+}
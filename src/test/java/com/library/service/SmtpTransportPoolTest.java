@@ -0,0 +1,115 @@
+package com.library.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmtpTransportPoolTest {
+    
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private SmtpTransportPool pool;
+    
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        
+        pool = new SmtpTransportPool();
+        ReflectionTestUtils.setField(pool, "mailSender", mailSender);
+        ReflectionTestUtils.setField(pool, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(pool, "poolSize", 2);
+        ReflectionTestUtils.setField(pool, "maxMessagesPerSession", 100);
+        ReflectionTestUtils.setField(pool, "maxSessionAge", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(pool, "maxIdle", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(pool, "borrowTimeout", Duration.ofSeconds(5));
+        pool.start();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        pool.stop();
+    }
+    
+    @Test
+    void testSessionIsReusedAcrossSends() {
+        for (int i = 0; i < 5; i++) {
+            pool.send(message("user" + i + "@example.com"));
+        }
+        
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertEquals(1, meterRegistry.get("mail.transport.connect").timer().count());
+        assertEquals(5, meterRegistry.get("mail.send.duration").tag("outcome", "success").timer().count());
+        assertEquals(1.0, meterRegistry.get("mail.transport.idle").gauge().value());
+    }
+    
+    @Test
+    void testSessionIsRecycledAfterMessageLimit() {
+        ReflectionTestUtils.setField(pool, "maxMessagesPerSession", 2);
+        
+        for (int i = 0; i < 5; i++) {
+            pool.send(message("user" + i + "@example.com"));
+        }
+        
+        assertEquals(3, meterRegistry.get("mail.transport.connect").timer().count());
+        assertEquals(2.0, meterRegistry.get("mail.transport.closed").tag("reason", "expired").counter().count());
+    }
+    
+    @Test
+    void testSweepClosesExpiredIdleSessions() {
+        pool.send(message("user@example.com"));
+        
+        assertEquals(0, pool.sweep());
+        
+        ReflectionTestUtils.setField(pool, "maxIdle", Duration.ZERO);
+        assertEquals(1, pool.sweep());
+        assertEquals(0.0, meterRegistry.get("mail.transport.open").gauge().value());
+        assertEquals(0.0, meterRegistry.get("mail.transport.idle").gauge().value());
+    }
+    
+    @Test
+    void testDroppedSessionIsRetriedOnNewOne() {
+        pool.send(message("first@example.com"));
+        // Restarting the server drops the pooled connection
+        greenMail.reset();
+        
+        pool.send(message("second@example.com"));
+        
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(2, meterRegistry.get("mail.transport.connect").timer().count());
+    }
+    
+    @Test
+    void testUnreachableServerFails() {
+        greenMail.stop();
+        
+        assertThrows(MailSendException.class, () -> pool.send(message("user@example.com")));
+        assertEquals(0.0, meterRegistry.get("mail.transport.open").gauge().value());
+    }
+    
+    private SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("library@example.com");
+        message.setTo(to);
+        message.setSubject("Subject");
+        message.setText("Body");
+        return message;
+    }
+}
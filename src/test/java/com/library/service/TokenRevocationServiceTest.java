@@ -0,0 +1,110 @@
+package com.library.service;
+
+import com.library.security.JwtClaims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+    
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+    
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        ReflectionTestUtils.setField(tokenRevocationService, "tokenLifetimeMillis", 3600000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "keyPrefix", "revoked-token:");
+        ReflectionTestUtils.setField(tokenRevocationService, "indexKey", "revoked-tokens");
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "falsePositiveProbability", 0.001);
+        ReflectionTestUtils.setField(tokenRevocationService, "refreshOverlap", Duration.ofSeconds(5));
+        tokenRevocationService.init();
+    }
+    
+    @Test
+    void testRevokeStoresIdForRemainingLifetime() {
+        tokenRevocationService.revoke(claims("jti-1", Instant.now().plusSeconds(600)));
+        
+        verify(valueOperations).set(eq("revoked-token:jti-1"), eq("1"),
+                argThat((Duration ttl) -> ttl.getSeconds() > 590 && ttl.getSeconds() <= 600));
+        verify(zSetOperations).add(eq("revoked-tokens"), eq("jti-1"), anyDouble());
+    }
+    
+    @Test
+    void testUnknownTokenSkipsRedis() {
+        assertFalse(tokenRevocationService.isRevoked("never-revoked"));
+        verify(redisTemplate, never()).hasKey(anyString());
+    }
+    
+    @Test
+    void testFilterHitIsConfirmedInRedis() {
+        tokenRevocationService.revoke(claims("jti-1", Instant.now().plusSeconds(600)));
+        when(redisTemplate.hasKey("revoked-token:jti-1")).thenReturn(true);
+        
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+    }
+    
+    @Test
+    void testFilterHitFailsClosedWhenRedisIsDown() {
+        doThrow(new RedisConnectionFailureException("down")).when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        tokenRevocationService.revoke(claims("jti-1", Instant.now().plusSeconds(600)));
+        when(redisTemplate.hasKey(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+        
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+    }
+    
+    @Test
+    void testRefreshPicksUpRevocationsFromOtherNodes() {
+        Set<ZSetOperations.TypedTuple<String>> remote =
+                Collections.singleton(new DefaultTypedTuple<>("jti-remote", (double) System.currentTimeMillis()));
+        when(zSetOperations.rangeByScoreWithScores(eq("revoked-tokens"), anyDouble(), anyDouble())).thenReturn(remote);
+        when(redisTemplate.hasKey("revoked-token:jti-remote")).thenReturn(true);
+        
+        tokenRevocationService.refresh();
+        
+        assertTrue(tokenRevocationService.isRevoked("jti-remote"));
+    }
+    
+    @Test
+    void testExpiredTokenIsNotRecorded() {
+        tokenRevocationService.revoke(claims("jti-1", Instant.now().minusSeconds(1)));
+        
+        verifyNoInteractions(valueOperations);
+    }
+    
+    private JwtClaims claims(String tokenId, Instant expiresAt) {
+        return JwtClaims.builder().tokenId(tokenId).subject("testuser").expiresAt(expiresAt).build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.library.service;
+
+import com.library.domain.entity.User;
+import com.library.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserLookupServiceTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @InjectMocks
+    private UserLookupService userLookupService;
+    
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        
+        user = User.builder()
+                .id(1L)
+                .username("TestUser")
+                .email("Test@Example.com")
+                .build();
+    }
+    
+    @Test
+    void testEmailIdentifierUsesEmailIndexOnly() {
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(user));
+        
+        assertEquals(Optional.of(user), userLookupService.findByIdentifier(" Test@EXAMPLE.com "));
+        verify(userRepository, never()).findByUsernameNormalized(anyString());
+    }
+    
+    @Test
+    void testUsernameIdentifierIsCaseInsensitive() {
+        when(userRepository.findByUsernameNormalized("testuser")).thenReturn(Optional.of(user));
+        
+        assertEquals(Optional.of(user), userLookupService.findByIdentifier("TESTUSER"));
+        verify(userRepository, never()).findByEmailNormalized(anyString());
+    }
+    
+    @Test
+    void testEmailMissIsNotRetriedAsUsernameWithoutLegacyUsernames() {
+        when(userRepository.countByUsernameContaining("@")).thenReturn(0L);
+        userLookupService.run(null);
+        when(userRepository.findByEmailNormalized("old@name")).thenReturn(Optional.empty());
+        
+        assertTrue(userLookupService.findByIdentifier("old@name").isEmpty());
+        verify(userRepository, never()).findByUsernameNormalized(anyString());
+    }
+    
+    @Test
+    void testLegacyUsernameWithAtStillResolves() {
+        User legacy = User.builder().id(2L).username("Old@Name").email("old@example.com").build();
+        when(userRepository.countByUsernameContaining("@")).thenReturn(1L);
+        userLookupService.run(null);
+        when(userRepository.findByEmailNormalized("old@name")).thenReturn(Optional.empty());
+        when(userRepository.findByUsernameNormalized("old@name")).thenReturn(Optional.of(legacy));
+        
+        assertEquals(Optional.of(legacy), userLookupService.findByIdentifier("Old@Name"));
+    }
+    
+    @Test
+    void testEmailMatchWinsOverLegacyUsername() {
+        when(userRepository.countByUsernameContaining("@")).thenReturn(1L);
+        userLookupService.run(null);
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(user));
+        
+        assertEquals(Optional.of(user), userLookupService.findByIdentifier("test@example.com"));
+        verify(userRepository, never()).findByUsernameNormalized(anyString());
+    }
+}
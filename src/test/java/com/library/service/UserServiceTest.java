@@ -5,7 +5,10 @@ import com.library.domain.enums.Role;
 import com.library.dto.request.UserUpdateRequest;
 import com.library.dto.response.UserResponse;
 import com.library.exception.ResourceNotFoundException;
+import com.library.repository.ArticleRepository;
+import com.library.repository.ArticleSummary;
 import com.library.repository.UserRepository;
+import com.library.security.UserDetailsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -13,12 +16,15 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class UserServiceTest {
@@ -32,6 +38,30 @@ class UserServiceTest {
     @Mock
     private AuditLogService auditLogService;
     
+    @Mock
+    private ArticleRepository articleRepository;
+    
+    @Mock
+    private ArticleStatisticsService articleStatisticsService;
+    
+    @Mock
+    private ArticleCacheService articleCacheService;
+    
+    @Mock
+    private SecurityVersionService securityVersionService;
+    
+    @Mock
+    private UserLookupService userLookupService;
+    
+    @Mock
+    private IdentifierAvailabilityService identifierAvailabilityService;
+    
+    @Mock
+    private UserDetailsCache userDetailsCache;
+    
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    
     @InjectMocks
     private UserService userService;
     
@@ -108,7 +138,7 @@ class UserServiceTest {
         
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
-        when(userRepository.existsByEmail("updated@example.com")).thenReturn(false);
+        when(userLookupService.emailExists("updated@example.com")).thenReturn(false);
         when(userRepository.save(any(User.class))).thenReturn(user);
         
         UserResponse response = userService.updateUser(1L, request, "admin");
@@ -116,6 +146,41 @@ class UserServiceTest {
         assertNotNull(response);
         verify(userRepository, times(1)).save(any(User.class));
         verify(auditLogService, times(1)).logUserAction(any(), anyLong(), anyString(), anyLong(), anyString());
+        verify(securityVersionService, times(1)).bump(user);
+    }
+    
+    @Test
+    void testUpdateUserProfileOnlyKeepsTokensValid() {
+        UserUpdateRequest request = UserUpdateRequest.builder()
+                .fullname("Updated Name")
+                .role(Role.VIEWER)
+                .enabled(true)
+                .build();
+        
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        
+        userService.updateUser(1L, request, "admin");
+        
+        verify(securityVersionService, never()).bump(any());
+        verify(refreshTokenService, never()).revokeAll(any());
+    }
+    
+    @Test
+    void testPasswordResetInvalidatesIssuedTokens() {
+        UserUpdateRequest request = UserUpdateRequest.builder()
+                .password("NewPassword123!")
+                .build();
+        
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(passwordEncoder.encode("NewPassword123!")).thenReturn("newEncodedPassword");
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        
+        userService.updateUser(1L, request, "admin");
+        
+        assertEquals("newEncodedPassword", user.getPassword());
+        verify(securityVersionService, times(1)).bump(user);
+        verify(refreshTokenService, times(1)).revokeAll(1L);
     }
     
     @Test
@@ -125,7 +190,7 @@ class UserServiceTest {
                 .build();
         
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
+        when(userLookupService.emailExists("existing@example.com")).thenReturn(true);
         
         assertThrows(IllegalArgumentException.class, 
             () -> userService.updateUser(1L, request, "admin"));
@@ -145,9 +210,26 @@ class UserServiceTest {
         userService.deleteUser(1L, "admin");
         
         verify(userRepository, times(1)).delete(user);
+        verify(securityVersionService, times(1)).invalidate(1L);
+        verify(articleRepository, never()).softDeleteByAuthorId(anyLong(), any());
         verify(auditLogService, times(1)).logUserAction(any(), anyLong(), anyString(), anyLong(), anyString());
     }
     
+    @Test
+    void testDeleteUserSoftDeletesArticlesInBulk() {
+        ArticleSummary summary = mock(ArticleSummary.class);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(articleRepository.findSummariesByAuthorId(1L)).thenReturn(Arrays.asList(summary, summary));
+        
+        userService.deleteUser(1L, "admin");
+        
+        verify(articleStatisticsService, times(1)).recordDeleted(anyCollection());
+        verify(articleRepository, times(1)).softDeleteByAuthorId(eq(1L), any(LocalDateTime.class));
+        verify(articleRepository, never()).delete(any());
+        verify(articleCacheService, times(1)).evictAll();
+        verify(userRepository, times(1)).delete(user);
+    }
+    
     @Test
     void testGetUserEntityByUsername() {
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
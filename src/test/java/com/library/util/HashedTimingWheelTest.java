@@ -0,0 +1,82 @@
+package com.library.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+    
+    private HashedTimingWheel<String> wheel;
+    
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimingWheel<>(Duration.ofMillis(100), 8, 0);
+    }
+    
+    @Test
+    void testTimeoutFiresOnlyOnceDeadlinePassed() {
+        wheel.schedule("a", 250);
+        
+        assertTrue(wheel.advance(200).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(300));
+        assertTrue(wheel.advance(400).isEmpty());
+    }
+    
+    @Test
+    void testTimeoutsInSameTickExpireTogether() {
+        wheel.schedule("a", 510);
+        wheel.schedule("b", 590);
+        
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(wheel.advance(600)));
+    }
+    
+    @Test
+    void testTimeoutBeyondOneRevolutionWaitsForItsRound() {
+        // 8 buckets of 100 ms: 1000 ms shares a bucket with 200 ms
+        wheel.schedule("far", 1000);
+        
+        assertTrue(wheel.advance(200).isEmpty());
+        assertTrue(wheel.advance(900).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(1000));
+    }
+    
+    @Test
+    void testOverdueTimeoutExpiresOnNextAdvance() {
+        wheel.advance(1000);
+        HashedTimingWheel.Timeout<String> timeout = wheel.schedule("late", 500);
+        
+        assertEquals(List.of("late"), wheel.advance(1000));
+        assertTrue(timeout.isExpired());
+    }
+    
+    @Test
+    void testLongPauseExpiresEverythingDue() {
+        wheel.schedule("a", 100);
+        wheel.schedule("b", 700);
+        wheel.schedule("c", 5000);
+        
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(wheel.advance(3000)));
+        assertEquals(List.of("c"), wheel.advance(5000));
+    }
+    
+    @Test
+    void testCancelledTimeoutNeverFires() {
+        HashedTimingWheel.Timeout<String> timeout = wheel.schedule("a", 200);
+        timeout.cancel();
+        
+        assertTrue(wheel.advance(500).isEmpty());
+        assertFalse(timeout.isExpired());
+    }
+    
+    @Test
+    void testWheelSizeMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new HashedTimingWheel<String>(Duration.ofMillis(100), 10, 0));
+    }
+}
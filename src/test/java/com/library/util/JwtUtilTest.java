@@ -1,5 +1,8 @@
 package com.library.util;
 
+import com.library.security.JwtClaims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.User;
@@ -21,6 +24,7 @@ class JwtUtilTest {
         jwtUtil = new JwtUtil();
         ReflectionTestUtils.setField(jwtUtil, "secret", "testSecretKeyForTestingPurposesOnly123456789012345678901234567890");
         ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L); // 1 hour
+        jwtUtil.init();
     }
     
     @Test
@@ -115,5 +119,40 @@ class JwtUtilTest {
     void testValidateInvalidToken() {
         assertFalse(jwtUtil.validateToken("invalid.token.here"));
     }
+    
+    @Test
+    void testVerifyReturnsClaimsView() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", 7L);
+        claims.put("email", "test@example.com");
+        claims.put("role", "EDITOR");
+        
+        JwtClaims verified = jwtUtil.verify(jwtUtil.generateToken("testuser", claims));
+        
+        assertEquals("testuser", verified.getSubject());
+        assertEquals(7L, verified.getUserId());
+        assertEquals("test@example.com", verified.getEmail());
+        assertEquals("EDITOR", verified.getRole());
+        assertTrue(verified.getExpiresAt().isAfter(verified.getIssuedAt()));
+    }
+    
+    @Test
+    void testVerifyRejectsExpiredToken() {
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -1000L);
+        String token = jwtUtil.generateToken("testuser", new HashMap<>());
+        
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(token));
+    }
+    
+    @Test
+    void testVerifyRejectsTokenSignedWithOtherKey() {
+        JwtUtil other = new JwtUtil();
+        ReflectionTestUtils.setField(other, "secret", "anotherSecretKeyForTestingPurposesOnly12345678901234567890123456");
+        ReflectionTestUtils.setField(other, "expiration", 3600000L);
+        other.init();
+        String token = other.generateToken("testuser", new HashMap<>());
+        
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+    }
 }
 